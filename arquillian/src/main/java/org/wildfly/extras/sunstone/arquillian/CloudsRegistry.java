@@ -8,6 +8,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.Predicate;
 
 import org.jboss.arquillian.config.descriptor.api.ContainerDef;
@@ -22,6 +25,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wildfly.extras.sunstone.api.CloudProvider;
 import org.wildfly.extras.sunstone.api.Node;
+import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsCloudProvider;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
 import org.wildfly.extras.sunstone.api.impl.ObjectType;
 import org.wildfly.extras.sunstone.api.wildfly.WildFlyNode;
@@ -171,6 +175,25 @@ public class CloudsRegistry {
         }
     }
 
+    /**
+     * Returns the executor which the provider uses for destroying its nodes, so that long blocking node destroys don't run
+     * on the common fork-join pool. If the provider's executor refuses more tasks (e.g. the "abort" queue policy), the
+     * node is destroyed by the calling thread, so that it's not leaked.
+     */
+    private static Executor destroyExecutor(CloudProvider provider) {
+        if (provider instanceof AbstractJCloudsCloudProvider) {
+            final Executor destroyExecutor = ((AbstractJCloudsCloudProvider) provider).getDestroyExecutor();
+            return task -> {
+                try {
+                    destroyExecutor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.run();
+                }
+            };
+        }
+        return ForkJoinPool.commonPool();
+    }
+
     /**
      * Closes nodes (in all registered providers) which fits given predicate.
      *
@@ -185,7 +208,7 @@ public class CloudsRegistry {
             for (CloudProvider provider : providerMapCopy.values()) {
                 for (Node node : provider.getNodes()) {
                     if (predicate.test(node)) {
-                        futures.add(CompletableFuture.runAsync(node::close));
+                        futures.add(CompletableFuture.runAsync(node::close, destroyExecutor(provider)));
                     }
                 }
                 if (provider.getNodes().isEmpty()) {
@@ -98,6 +98,43 @@ public interface CloudProvider extends AutoCloseable {
     CompletableFuture<Node> createNodeAsync(String name, Map<String, String> overrides, Executor executor) throws NullPointerException;
 
 
+    /**
+     * Leases a started {@link Node} with given name. If this cloud provider keeps a warm pool of nodes with given name
+     * (see the {@code pool.*} cloud provider properties), an already started node is taken from the pool and the pool
+     * is refilled in the background. Otherwise, or if the pool is empty, the node is created the same way as by
+     * {@link #createNode(String)}.
+     * <p>
+     * The leased node can be given back by {@link #release(Node)} or destroyed as usual by {@link Node#close()}.
+     *
+     * @throws NullPointerException when {@code name} is {@code null}
+     * @throws IllegalArgumentException when there already exist node with given {@code name}
+     */
+    Node lease(String name) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Gives back a {@link Node} obtained from {@link #lease(String)}. If this cloud provider keeps a warm pool of nodes
+     * with the node's name, the node is still running and the pool isn't full, the node is kept running in the pool for
+     * later leases; it is not cleaned, so files and processes of the previous lessee stay on the node. Otherwise
+     * the node is destroyed. In both cases, the node is no longer accessible through {@link #getNode(String)}.
+     *
+     * @throws NullPointerException when {@code node} is {@code null}
+     * @throws IllegalArgumentException when the {@code node} doesn't belong to this cloud provider
+     */
+    void release(Node node) throws NullPointerException, IllegalArgumentException;
+
+    /**
+     * Registers a listener which is notified about {@link ProvisioningPhase phases} of starting nodes of this cloud
+     * provider. Per-node totals are also available from {@link Node#getProvisioningTimings()}.
+     *
+     * @throws NullPointerException when {@code listener} is {@code null}
+     */
+    void addProvisioningListener(ProvisioningListener listener) throws NullPointerException;
+
+    /**
+     * Unregisters a listener previously registered by {@link #addProvisioningListener(ProvisioningListener)}.
+     */
+    void removeProvisioningListener(ProvisioningListener listener);
+
     /**
      * Returns {@link Node} (created by this provider) with given name. Returns {@code null}
      * if a node with given name is not found.
@@ -5,7 +5,11 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * This class is just a wrapper around list of {@link Node nodes} and implementing AutoCloseable interface.
@@ -13,9 +17,19 @@ import java.util.concurrent.CompletableFuture;
 public class CreatedNodes implements AutoCloseable, List<Node> {
 
     private final List<Node> nodes;
+    private final Executor closeExecutor;
 
     public CreatedNodes(List<Node> nodes) {
+        this(nodes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param nodes the created nodes
+     * @param closeExecutor executor which is used for closing the nodes in parallel
+     */
+    public CreatedNodes(List<Node> nodes, Executor closeExecutor) {
         this.nodes = nodes;
+        this.closeExecutor = Objects.requireNonNull(closeExecutor, "closeExecutor");
     }
 
     /**
@@ -26,8 +40,16 @@ public class CreatedNodes implements AutoCloseable, List<Node> {
     public void close() throws Exception {
         final List<Exception> closeExceptions = new ArrayList<>();
         final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        // the nodes must not be leaked even if the executor refuses more tasks (e.g. the "abort" queue policy)
+        final Executor executor = task -> {
+            try {
+                closeExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
         for (Node node : nodes) {
-            futures.add(CompletableFuture.runAsync(node::close));
+            futures.add(CompletableFuture.runAsync(node::close, executor));
         }
         futures.forEach(f -> {
             try {
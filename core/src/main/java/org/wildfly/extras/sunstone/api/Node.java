@@ -2,7 +2,10 @@ package org.wildfly.extras.sunstone.api;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
 
+import org.wildfly.extras.sunstone.api.process.CommandTransport;
 import org.wildfly.extras.sunstone.api.ssh.SshClient;
 
 /**
@@ -126,6 +129,41 @@ public interface Node extends AutoCloseable {
      */
     void kill() throws OperationNotSupportedException;
 
+    /**
+     * Freezes this node, so that its processes don't run, but keep their state (e.g. memory) until {@link #thaw()}.
+     * Meant for cheap failure simulations, where a node should stop responding without a restart of its services.
+     * The default implementation falls back to {@link #stop()}; node types which can suspend their processes (e.g.
+     * Docker by pausing the container) override this.
+     *
+     * @throws OperationNotSupportedException
+     */
+    default void freeze() throws OperationNotSupportedException {
+        stop();
+    }
+
+    /**
+     * Resumes this node after {@link #freeze()}. The default implementation falls back to {@link #start()}.
+     *
+     * @throws OperationNotSupportedException
+     */
+    default void thaw() throws OperationNotSupportedException {
+        start();
+    }
+
+    /**
+     * Creates an image (e.g. an AMI on EC2 or a Glance image on OpenStack) from the current state of this node, typically
+     * after its boot script finished. The image name is {@code imageName} followed by a fingerprint of the base image
+     * and the boot script, so that nodes with the same configuration can use the baked image instead of running the boot
+     * script again (see the {@code bakedImage.prefer} node property). Blocks until the image is available.
+     *
+     * @return the ID of the created image
+     * @throws OperationNotSupportedException when the cloud provider can't create images from nodes
+     * @throws InterruptedException when interrupted while waiting for the image to be created
+     */
+    default String bakeImage(String imageName) throws OperationNotSupportedException, InterruptedException {
+        throw new OperationNotSupportedException("Baking an image is not supported for node '" + getName() + "'");
+    }
+
     /**
      * Copies file/folder on given location in this node to given local {@link Path}.
      */
@@ -149,10 +187,27 @@ public interface Node extends AutoCloseable {
      */
     SshClient ssh() throws OperationNotSupportedException, InterruptedException;
 
+    /**
+     * Returns the transport which {@link org.wildfly.extras.sunstone.api.process.ExecBuilder ExecBuilder} uses to
+     * execute commands on this node. The default is {@link CommandTransport#ssh(Node) SSH}, node types which can execute
+     * commands in a cheaper way override this.
+     */
+    default CommandTransport commandTransport() {
+        return CommandTransport.ssh(this);
+    }
 
     /** Returns the {@link ConfigProperties configuration properties} of this node. */
     ConfigProperties config();
 
+    /**
+     * Returns how long (in nanoseconds) the {@link ProvisioningPhase phases} of starting this node took. If a phase
+     * happened more than once (e.g. waiting for ports), the durations are summed. Phases which didn't happen are
+     * missing. Nodes which don't track the provisioning return an empty map.
+     */
+    default Map<ProvisioningPhase, Long> getProvisioningTimings() {
+        return Collections.emptyMap();
+    }
+
     /**
      * Destroys this node (and returns resources to cloud provider).
      */
@@ -2,8 +2,10 @@ package org.wildfly.extras.sunstone.api;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.Objects;
 
+import org.wildfly.extras.sunstone.api.process.CommandTransport;
 import org.wildfly.extras.sunstone.api.ssh.SshClient;
 
 /**
@@ -76,6 +78,14 @@ public class NodeWrapper implements Node {
         delegate.kill();
     }
 
+    public void freeze() throws OperationNotSupportedException {
+        delegate.freeze();
+    }
+
+    public void thaw() throws OperationNotSupportedException {
+        delegate.thaw();
+    }
+
     public void close() {
         delegate.close();
     }
@@ -101,6 +111,11 @@ public class NodeWrapper implements Node {
         return delegate.ssh();
     }
 
+    @Override
+    public CommandTransport commandTransport() {
+        return delegate.commandTransport();
+    }
+
     public String getImageName() {
         return delegate.getImageName();
     }
@@ -110,6 +125,16 @@ public class NodeWrapper implements Node {
         return delegate.config();
     }
 
+    @Override
+    public String bakeImage(String imageName) throws OperationNotSupportedException, InterruptedException {
+        return delegate.bakeImage(imageName);
+    }
+
+    @Override
+    public Map<ProvisioningPhase, Long> getProvisioningTimings() {
+        return delegate.getProvisioningTimings();
+    }
+
     public int getPublicTcpPort(int tcpPort) {
         return delegate.getPublicTcpPort(tcpPort);
     }
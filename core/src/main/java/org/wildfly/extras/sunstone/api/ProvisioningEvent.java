@@ -0,0 +1,56 @@
+package org.wildfly.extras.sunstone.api;
+
+import java.util.Objects;
+
+/**
+ * A finished {@link ProvisioningPhase phase} of starting a node. The timestamps are values of {@link System#nanoTime()},
+ * so they're only meaningful relative to each other.
+ */
+public final class ProvisioningEvent {
+    private final String cloudProviderName;
+    private final String nodeName;
+    private final ProvisioningPhase phase;
+    private final long startNanos;
+    private final long endNanos;
+
+    public ProvisioningEvent(String cloudProviderName, String nodeName, ProvisioningPhase phase, long startNanos,
+            long endNanos) {
+        this.cloudProviderName = Objects.requireNonNull(cloudProviderName, "Cloud provider name has to be provided.");
+        this.nodeName = Objects.requireNonNull(nodeName, "Node name has to be provided.");
+        this.phase = Objects.requireNonNull(phase, "Provisioning phase has to be provided.");
+        this.startNanos = startNanos;
+        this.endNanos = endNanos;
+    }
+
+    public String getCloudProviderName() {
+        return cloudProviderName;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public ProvisioningPhase getPhase() {
+        return phase;
+    }
+
+    /** {@link System#nanoTime()} when the phase started. */
+    public long getStartNanos() {
+        return startNanos;
+    }
+
+    /** {@link System#nanoTime()} when the phase finished. */
+    public long getEndNanos() {
+        return endNanos;
+    }
+
+    public long getDurationNanos() {
+        return endNanos - startNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ProvisioningEvent [cloudProvider=" + cloudProviderName + ", node=" + nodeName + ", phase=" + phase
+                + ", durationNanos=" + getDurationNanos() + "]";
+    }
+}
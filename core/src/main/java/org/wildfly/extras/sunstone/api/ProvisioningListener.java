@@ -0,0 +1,14 @@
+package org.wildfly.extras.sunstone.api;
+
+/**
+ * Listener which is notified about phases of starting nodes of a {@link CloudProvider}, see
+ * {@link CloudProvider#addProvisioningListener(ProvisioningListener)}. The listener is called synchronously by the
+ * thread which starts the node, so it should return quickly. Exceptions thrown by the listener are logged and ignored.
+ */
+@FunctionalInterface
+public interface ProvisioningListener {
+    /**
+     * Called when a {@link ProvisioningPhase phase} of starting a node finished successfully.
+     */
+    void phaseFinished(ProvisioningEvent event);
+}
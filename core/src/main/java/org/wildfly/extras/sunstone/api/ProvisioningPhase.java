@@ -0,0 +1,24 @@
+package org.wildfly.extras.sunstone.api;
+
+/**
+ * Phases of starting a {@link Node}, see {@link ProvisioningListener}. Not all phases apply to all cloud providers
+ * or nodes (e.g. there's no boot script upload if the node doesn't have a boot script).
+ */
+public enum ProvisioningPhase {
+    /** Resolving the image of the node (e.g. pulling a Docker image or looking up an AMI). */
+    IMAGE_RESOLUTION,
+    /** Building the JClouds template of the node. */
+    TEMPLATE_BUILD,
+    /** Creating the node in the cloud (JClouds {@code createNodesInGroup}). */
+    CREATE_NODES_IN_GROUP,
+    /** Establishing the first SSH connection to the node. */
+    SSH_CONNECT,
+    /** Copying the boot script to the node. */
+    BOOT_SCRIPT_UPLOAD,
+    /** Running the boot script on the node. */
+    BOOT_SCRIPT_RUN,
+    /** Waiting for the configured ports of the node to be open. */
+    PORT_WAIT,
+    /** The whole provisioning, from start until the node is ready for use. */
+    READY
+}
@@ -1,7 +1,8 @@
 package org.wildfly.extras.sunstone.api.impl;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -10,10 +11,15 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
 import java.util.function.IntFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import org.jclouds.ContextBuilder;
@@ -24,6 +30,9 @@ import org.wildfly.extras.sunstone.api.CloudProviderType;
 import org.wildfly.extras.sunstone.api.ConfigProperties;
 import org.wildfly.extras.sunstone.api.CreatedNodes;
 import org.wildfly.extras.sunstone.api.Node;
+import org.wildfly.extras.sunstone.api.NodeWrapper;
+import org.wildfly.extras.sunstone.api.ProvisioningEvent;
+import org.wildfly.extras.sunstone.api.ProvisioningListener;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsCloudProvider;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsNode;
 
@@ -37,13 +46,24 @@ import com.google.inject.Injector;
 public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvider {
     private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
 
+    private static final long DEFAULT_CLOSE_TIMEOUT_SEC = 600;
+
     protected final CloudProviderType cloudProviderType;
     protected final ObjectProperties objectProperties;
-    protected final ComputeServiceContext computeServiceContext;
-    protected final OpenSocketFinder socketFinder;
-    protected final Injector guiceInjector;
 
-    private final ConcurrentMap<String, JCloudsNode> nodes = new ConcurrentHashMap<>();
+    // a node name is reserved by putting an incomplete future into this map before the node is created, the future
+    // is completed once the node is started (or removed from the map if starting the node failed); this way, the map
+    // is never locked while a node is being created and readers never wait for nodes which are still starting
+    private final ConcurrentMap<String, CompletableFuture<JCloudsNode>> nodes = new ConcurrentHashMap<>();
+    private volatile NodePool nodePool;
+    private final ProvisioningExecutors executors;
+    private final List<ProvisioningListener> provisioningListeners = new CopyOnWriteArrayList<>();
+
+    // the JClouds context is created on first use (unless Config#LAZY_INIT is false, then it's created right away)
+    private final Function<ObjectProperties, ContextBuilder> contextBuilderCreator;
+    private final Object contextLock = new Object();
+    private volatile JCloudsContext context; // guarded by contextLock
+    private boolean closed; // guarded by contextLock
 
     /**
      * Constructor which takes name and map of overrides.
@@ -58,16 +78,74 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
 
         this.cloudProviderType = cloudProviderType;
         this.objectProperties = new ObjectProperties(ObjectType.CLOUD_PROVIDER, name, overrides);
+        this.executors = ProvisioningExecutors.create(name, objectProperties);
+
+        this.contextBuilderCreator = contextBuilderCreator;
 
-        LOGGER.debug("Creating {} ComputeServiceContext", cloudProviderType.getHumanReadableName());
-        ContextBuilder contextBuilder = contextBuilderCreator.apply(objectProperties);
-        // TODO the following builds a Guice injector twice, which is wasteful
-        this.guiceInjector = contextBuilder.buildInjector();
-        this.socketFinder = guiceInjector.getInstance(OpenSocketFinder.class);
-        this.computeServiceContext = contextBuilder.buildView(ComputeServiceContext.class);
+        if (!objectProperties.getPropertyAsBoolean(Config.LAZY_INIT, false)) {
+            context();
+        } else if (objectProperties.getPropertyAsBoolean(Config.LAZY_INIT_PREWARM, false)) {
+            prewarmContext();
+        }
         LOGGER.info("Started {} cloud provider '{}'", cloudProviderType.getHumanReadableName(), name);
     }
 
+    /**
+     * The JClouds context of this cloud provider, together with things derived from it.
+     */
+    private static final class JCloudsContext {
+        private final SharedComputeServiceContext.Lease lease;
+        private final OpenSocketFinder socketFinder;
+
+        private JCloudsContext(SharedComputeServiceContext.Lease lease) {
+            this.lease = lease;
+            this.socketFinder = lease.getInjector().getInstance(OpenSocketFinder.class);
+        }
+    }
+
+    /**
+     * Returns the JClouds context, creating it if it wasn't created yet. If creating the context fails, it will be
+     * attempted again on the next call.
+     */
+    private JCloudsContext context() {
+        JCloudsContext result = context;
+        if (result == null) {
+            synchronized (contextLock) {
+                if (closed) {
+                    throw new IllegalStateException(cloudProviderType.getHumanReadableName() + " cloud provider '"
+                            + getName() + "' is already closed");
+                }
+                result = context;
+                if (result == null) {
+                    LOGGER.debug("Creating {} ComputeServiceContext", cloudProviderType.getHumanReadableName());
+                    result = new JCloudsContext(SharedComputeServiceContext.acquire(cloudProviderType, objectProperties,
+                            contextBuilderCreator, objectProperties.getPropertyAsBoolean(Config.SHARED_CONTEXT, true)));
+                    context = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the JClouds context in the background, so that it's (hopefully) ready when the first node is created.
+     */
+    private void prewarmContext() {
+        try {
+            executors.getCreationExecutor().execute(() -> {
+                try {
+                    context();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Prewarming {} cloud provider '{}' failed, it will be retried on first use",
+                            cloudProviderType.getHumanReadableName(), getName(), e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Prewarming {} cloud provider '{}' was rejected", cloudProviderType.getHumanReadableName(),
+                    getName(), e);
+        }
+    }
+
     @Override
     public final String getName() {
         return objectProperties.getName();
@@ -86,53 +164,165 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
     @Override
     public final JCloudsNode createNode(String name, Map<String, String> overrides) {
         Objects.requireNonNull(name, "Node name has to be provided.");
-        // the ConcurrentHashMap.compute method will block other threads trying to call it if there's a hash collision
-        // (see its javadoc); an alternative solution that would avoid this problem would be to use a dummy value:
-        //
-        // old = nodes.putIfAbsent(name, DUMMY_VALUE)
-        // if (old != null) ... node with this name already exists ...
-        // nodes.put(name, createNodeInternal(name, overrides))
-        JCloudsNode node = nodes.compute(name, (k, v) -> {
-            if (v != null) {
-                throw new IllegalArgumentException("There already exist node with given name \"" + k + "\"; "
-                        + "You are not allowed to create two nodes with the same name under same provider");
+        return fillSlot(name, reserveSlot(name), () -> provisionNode(name, overrides));
+    }
+
+    /**
+     * Reserves given node name.
+     *
+     * @throws IllegalArgumentException when there already exist node with given name (or it's being created)
+     */
+    private CompletableFuture<JCloudsNode> reserveSlot(String name) {
+        final CompletableFuture<JCloudsNode> slot = new CompletableFuture<>();
+        if (nodes.putIfAbsent(name, slot) != null) {
+            throw nodeAlreadyExists(name);
+        }
+        return slot;
+    }
+
+    /**
+     * Fills a slot previously returned by {@link #reserveSlot(String)} with a node provided by the {@code nodeSupplier}.
+     * If the supplier fails, the reservation is cancelled.
+     */
+    private JCloudsNode fillSlot(String name, CompletableFuture<JCloudsNode> slot, Supplier<JCloudsNode> nodeSupplier) {
+        final JCloudsNode node;
+        try {
+            node = nodeSupplier.get();
+        } catch (RuntimeException | Error e) {
+            nodes.remove(name, slot);
+            slot.completeExceptionally(e);
+            throw e;
+        }
+        slot.complete(node);
+        return node;
+    }
+
+    /**
+     * Returns the node from given slot if it's already started, {@code null} otherwise. Never blocks.
+     */
+    private static JCloudsNode startedNode(CompletableFuture<JCloudsNode> slot) {
+        if (slot == null || !slot.isDone() || slot.isCompletedExceptionally()) {
+            return null;
+        }
+        return slot.join();
+    }
+
+    /**
+     * Creates and fully starts a node (i.e. runs its boot script and waits for its start ports), but doesn't register it
+     * in this cloud provider. If starting the node fails, the node is destroyed.
+     */
+    final AbstractJCloudsNode<?> provisionNode(String name, Map<String, String> overrides) {
+        final AbstractJCloudsNode<?> createdNode = (AbstractJCloudsNode<?>) createNodeInternal(name, overrides);
+        LOGGER.debug("Node '{}' can be reached now on address {}", createdNode.getName(), createdNode.getPublicAddress());
+        try {
+            createdNode.handleBootScript();
+            createdNode.waitForStartPorts(null);
+            createdNode.provisioningFinished();
+            LOGGER.debug("Node '{}' is succesfully started", createdNode.getName());
+        } catch (Exception e) {
+            destroyInCloud(createdNode);
+            if (e instanceof RuntimeException) {
+                throw (RuntimeException) e;
             } else {
-                final AbstractJCloudsNode<?> createdNode = (AbstractJCloudsNode<?>) createNodeInternal(name, overrides);
-                LOGGER.debug("Node '{}' can be reached now on address {}", createdNode.getName(), createdNode.getPublicAddress());
-                try {
-                    createdNode.handleBootScript();
-                    createdNode.waitForStartPorts(null);
-                    LOGGER.debug("Node '{}' is succesfully started", createdNode.getName());
-                } catch (Exception e) {
-                    if (nodeRequiresDestroy()) {
-                        computeServiceContext.getComputeService().destroyNode(createdNode.getInitialNodeMetadata().getId());
-                    }
-                    if (e instanceof RuntimeException) {
-                        throw (RuntimeException) e;
-                    } else {
-                        throw new RuntimeException("Processing boot script failed for "
-                                + cloudProviderType.getHumanReadableName() + " node '" + name + "'", e);
-                    }
-                }
-                return createdNode;
+                throw new RuntimeException("Processing boot script failed for "
+                        + cloudProviderType.getHumanReadableName() + " node '" + name + "'", e);
             }
+        }
+        return createdNode;
+    }
+
+    private static IllegalArgumentException nodeAlreadyExists(String name) {
+        return new IllegalArgumentException("There already exist node with given name \"" + name + "\"; "
+                + "You are not allowed to create two nodes with the same name under same provider");
+    }
+
+    @Override
+    public final JCloudsNode lease(String name) {
+        Objects.requireNonNull(name, "Node name has to be provided.");
+        final NodePool pool = nodePool;
+        if (pool == null || !pool.isPooled(name)) {
+            return createNode(name);
+        }
+
+        final JCloudsNode node = fillSlot(name, reserveSlot(name), () -> {
+            AbstractJCloudsNode<?> pooledNode = pool.take(name);
+            return pooledNode != null ? pooledNode : provisionNode(name, null);
         });
+        LOGGER.info("Leased {} node '{}'", cloudProviderType.getHumanReadableName(), name);
         return node;
     }
 
+    @Override
+    public final void release(Node node) {
+        Objects.requireNonNull(node, "Node has to be provided.");
+        node = NodeWrapper.unwrapAll(node);
+        final CompletableFuture<JCloudsNode> slot = nodes.get(node.getName());
+        if (!(node instanceof AbstractJCloudsNode) || startedNode(slot) != node || !nodes.remove(node.getName(), slot)) {
+            throw new IllegalArgumentException("Node '" + node.getName() + "' doesn't belong to "
+                    + cloudProviderType.getHumanReadableName() + " cloud provider '" + getName() + "'");
+        }
+        final AbstractJCloudsNode<?> jcloudsNode = (AbstractJCloudsNode<?>) node;
+        final NodePool pool = nodePool;
+        if (pool != null && pool.isPooled(node.getName())) {
+            LOGGER.info("Returning {} node '{}' to the node pool", cloudProviderType.getHumanReadableName(), node.getName());
+            pool.giveBack(jcloudsNode);
+        } else {
+            LOGGER.info("Destroying released {} node '{}'", cloudProviderType.getHumanReadableName(), node.getName());
+            destroyInCloud(jcloudsNode);
+        }
+    }
+
+    /**
+     * Starts pre-provisioning of the warm node pool, if it's configured (see {@link Config#POOL_NODES}). Concrete
+     * cloud provider implementations are expected to call this as the last step of their constructor, so that
+     * the nodes are never created by a cloud provider which isn't fully initialized.
+     */
+    protected final void startNodePool() {
+        if (nodePool == null) {
+            nodePool = NodePool.create(this, objectProperties);
+        }
+    }
+
+    /**
+     * Returns the executor which is used for creating nodes asynchronously, unless an executor is explicitly provided.
+     * The number of concurrently running tasks is limited by {@link Config#EXECUTOR_MAX_CONCURRENT_CREATIONS}.
+     */
+    public final Executor getCreationExecutor() {
+        return executors.getCreationExecutor();
+    }
+
+    /**
+     * Returns the executor which is used for destroying nodes concurrently. The number of concurrently running tasks
+     * is limited by {@link Config#EXECUTOR_MAX_CONCURRENT_DESTROYS}.
+     */
+    public final Executor getDestroyExecutor() {
+        return executors.getDestroyExecutor();
+    }
+
+    /**
+     * Returns counters of the warm node pool, or {@code null} if this cloud provider doesn't keep a node pool.
+     */
+    public final NodePoolStatistics getNodePoolStatistics() {
+        final NodePool pool = nodePool;
+        return pool == null ? null : pool.getStatistics();
+    }
+
     @Override
     public final CreatedNodes createNodes(String... nodeNames)
             throws NullPointerException, CompletionException, CancellationException {
         Objects.requireNonNull(nodeNames, "Node names have to be provided.");
         Arrays.stream(nodeNames).forEach(it -> Objects.requireNonNull(it, "Each node name must be not null"));
+        // nodes that resolve to an identical template are created by a single cloud API call
+        final ProvisioningBatch batch = objectProperties.getPropertyAsBoolean(Config.CREATE_NODES_BATCH, true)
+                ? new ProvisioningBatch() : null;
         CompletableFuture<Node>[] futures = Arrays.stream(nodeNames)
-                .map(this::createNodeAsync)
+                .map(name -> createNodeAsync(name, null, executors.getCreationExecutor(), batch))
                 .toArray((IntFunction<CompletableFuture<Node>[]>) CompletableFuture[]::new);
 
         try {
             return new CreatedNodes(Arrays.stream(futures)
                     .map(CompletableFuture::join)
-                    .collect(Collectors.toList()));
+                    .collect(Collectors.toList()), executors.getDestroyExecutor());
         } catch (Exception e) {
             LOGGER.warn("Encountered exception while creating nodes => taking care of cleaning remaining nodes " +
                     "which might take a while please be patient");
@@ -153,7 +343,7 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
 
     @Override
     public CompletableFuture<Node> createNodeAsync(String name) {
-        return createNodeAsync(name, null, ForkJoinPool.commonPool());
+        return createNodeAsync(name, null, executors.getCreationExecutor());
     }
 
     @Override
@@ -163,26 +353,86 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
 
     @Override
     public CompletableFuture<Node> createNodeAsync(String name, Map<String, String> overrides) {
-        return createNodeAsync(name, overrides, ForkJoinPool.commonPool());
+        return createNodeAsync(name, overrides, executors.getCreationExecutor());
     }
 
     @Override
     public CompletableFuture<Node> createNodeAsync(String name, Map<String, String> overrides, Executor executor)
             throws NullPointerException {
-        return CompletableFuture.supplyAsync(() -> createNode(name, overrides), executor);
+        return createNodeAsync(name, overrides, executor, null);
+    }
+
+    private CompletableFuture<Node> createNodeAsync(String name, Map<String, String> overrides, Executor executor,
+            ProvisioningBatch batch) {
+        Objects.requireNonNull(name, "Node name has to be provided.");
+        Objects.requireNonNull(executor, "Executor has to be provided.");
+        final CompletableFuture<Node> result = new CompletableFuture<>();
+        final CompletableFuture<JCloudsNode> slot;
+        try {
+            // the name is reserved right away, so that concurrent attempts to create a node with the same name fail fast
+            slot = reserveSlot(name);
+        } catch (IllegalArgumentException e) {
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        try {
+            executor.execute(() -> {
+                final ProvisioningBatch.Party batchParty = batch != null ? batch.join() : null;
+                try {
+                    result.complete(fillSlot(name, slot, () -> provisionNode(name, overrides)));
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    if (batchParty != null) {
+                        batchParty.close();
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            // typically RejectedExecutionException
+            nodes.remove(name, slot);
+            slot.completeExceptionally(e);
+            result.completeExceptionally(e);
+        }
+        return result;
     }
 
     protected abstract JCloudsNode createNodeInternal(String name, Map<String, String> overrides);
 
+    @Override
+    public final void addProvisioningListener(ProvisioningListener listener) {
+        provisioningListeners.add(Objects.requireNonNull(listener, "Provisioning listener has to be provided."));
+    }
+
+    @Override
+    public final void removeProvisioningListener(ProvisioningListener listener) {
+        provisioningListeners.remove(listener);
+    }
+
+    final void fireProvisioningEvent(ProvisioningEvent event) {
+        LOGGER.trace("{}", event);
+        for (ProvisioningListener listener : provisioningListeners) {
+            try {
+                listener.phaseFinished(event);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Provisioning listener {} failed to handle {}", listener, event, e);
+            }
+        }
+    }
+
     @Override
     public final JCloudsNode getNode(String name) {
         Objects.requireNonNull(name, "Node name has to be provided.");
-        return nodes.get(name);
+        return startedNode(nodes.get(name));
     }
 
     @Override
     public final List<Node> getNodes() {
-        return ImmutableList.copyOf(nodes.values());
+        return ImmutableList.copyOf(nodes.values().stream()
+                .map(AbstractJCloudsCloudProvider::startedNode)
+                .filter(Objects::nonNull)
+                .iterator());
     }
 
     @Override
@@ -190,37 +440,146 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
         return objectProperties;
     }
 
+    /**
+     * Destroys the node in the cloud (unless {@link #nodeRequiresDestroy()} says otherwise) without touching the node
+     * registry of this cloud provider.
+     */
+    final void destroyInCloud(JCloudsNode node) {
+        if (nodeRequiresDestroy()) {
+            destroyCloudNode(node);
+        }
+    }
+
+    /**
+     * Destroys given node in the cloud. The default implementation uses
+     * {@link org.jclouds.compute.ComputeService#destroyNode(String)}, cloud providers which have a faster way of
+     * getting rid of a node can override this.
+     */
+    protected void destroyCloudNode(JCloudsNode node) {
+        getComputeServiceContext().getComputeService().destroyNode(node.getInitialNodeMetadata().getId());
+    }
+
+    /**
+     * Called by {@link #close()} after all nodes were destroyed and before the JClouds context is closed. Cloud providers
+     * which hold their own resources (threads, open streams) release them here. Does nothing by default.
+     */
+    protected void releaseResources() {
+    }
+
     final void destroyNode(JCloudsNode node) {
         LOGGER.info("Destroying {} node '{}'", cloudProviderType.getHumanReadableName(), node.getName());
         if (nodeRequiresDestroy()) {
-            computeServiceContext.getComputeService().destroyNode(node.getInitialNodeMetadata().getId());
+            destroyCloudNode(node);
             LOGGER.info("Destroyed {} node '{}'", cloudProviderType.getHumanReadableName(), node.getName());
         } else {
             LOGGER.info("The {} node '{}' ({}) was configured to be kept running. The node is not destroyed.",
                     cloudProviderType.getHumanReadableName(), node.getName());
         }
-        nodes.remove(node.getName());
+        final CompletableFuture<JCloudsNode> slot = nodes.get(node.getName());
+        if (startedNode(slot) == node) {
+            nodes.remove(node.getName(), slot);
+        }
     }
 
+    /**
+     * Destroys all nodes of this cloud provider concurrently on the {@link #getDestroyExecutor() destroy executor} and
+     * then releases all resources of this cloud provider. Nodes which are still being created are destroyed once
+     * they're started. If some nodes fail to be destroyed, or aren't destroyed until the {@link Config#CLOSE_TIMEOUT_SEC}
+     * deadline, the first failure is thrown (with the other ones added as suppressed exceptions) after everything else
+     * was closed.
+     */
     @Override
     public final void close() {
         LOGGER.info("Destroying {} cloud provider '{}'", cloudProviderType.getHumanReadableName(), getName());
+        final long timeoutSec = objectProperties.getPropertyAsLong(Config.CLOSE_TIMEOUT_SEC, DEFAULT_CLOSE_TIMEOUT_SEC);
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSec);
+        final List<RuntimeException> failures = new ArrayList<>();
+
+        final NodePool pool = nodePool;
+        if (pool != null) {
+            try {
+                pool.close();
+            } catch (RuntimeException e) {
+                LOGGER.error("Failed to destroy idle nodes of the node pool", e);
+                failures.add(e);
+            }
+        }
 
-        for (Iterator<Map.Entry<String, JCloudsNode>> it = nodes.entrySet().iterator(); it.hasNext(); ) {
-            Map.Entry<String, JCloudsNode> nodeEntry = it.next();
-            JCloudsNode node = nodeEntry.getValue();
+        // the nodes must not be leaked even if the destroy executor refuses more tasks (see Config#EXECUTOR_QUEUE_POLICY)
+        final Executor destroyExecutor = task -> {
             try {
+                executors.getDestroyExecutor().execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        };
+        final Map<String, CompletableFuture<Void>> destroys = new LinkedHashMap<>();
+        for (Map.Entry<String, CompletableFuture<JCloudsNode>> nodeEntry : nodes.entrySet()) {
+            final String name = nodeEntry.getKey();
+            final CompletableFuture<JCloudsNode> slot = nodeEntry.getValue();
+            // nodes which are still starting are waited for, so that they are not leaked; if creating the node failed,
+            // there's nothing to destroy
+            destroys.put(name, slot.handle((node, creationFailure) -> node).thenAcceptAsync(node -> {
+                if (node == null) {
+                    return;
+                }
                 if (nodeRequiresDestroy()) {
-                    computeServiceContext.getComputeService().destroyNode(node.getInitialNodeMetadata().getId());
+                    destroyCloudNode(node);
+                }
+                nodes.remove(name, slot);
+                LOGGER.info("Destroyed {} node '{}'", cloudProviderType.getHumanReadableName(), name);
+            }, destroyExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(destroys.values().toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // inspected node by node below
+        }
+        for (Map.Entry<String, CompletableFuture<Void>> destroy : destroys.entrySet()) {
+            final CompletableFuture<Void> future = destroy.getValue();
+            if (!future.isDone()) {
+                LOGGER.error("Node '{}' was not destroyed in {} seconds", destroy.getKey(), timeoutSec);
+                failures.add(new IllegalStateException("Destroying " + cloudProviderType.getHumanReadableName()
+                        + " node '" + destroy.getKey() + "' didn't finish in " + timeoutSec + " seconds"));
+            } else if (future.isCompletedExceptionally()) {
+                try {
+                    future.join();
+                } catch (CompletionException | CancellationException e) {
+                    final Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    LOGGER.error("Failed to destroy node '{}'", destroy.getKey(), cause);
+                    failures.add(cause instanceof RuntimeException ? (RuntimeException) cause
+                            : new RuntimeException("Failed to destroy node '" + destroy.getKey() + "'", cause));
                 }
-                it.remove();
-                LOGGER.info("Destroyed {} node '{}'", cloudProviderType.getHumanReadableName(), node.getName());
-            } catch (RuntimeException e) {
-                LOGGER.error("Failed to destroy node '{}'", node.getName(), e);
             }
         }
-        computeServiceContext.close();
+
+        try {
+            releaseResources();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to release resources of cloud provider '{}'", getName(), e);
+            failures.add(e);
+        }
+
+        final JCloudsContext createdContext;
+        synchronized (contextLock) {
+            closed = true;
+            createdContext = context;
+        }
+        if (createdContext != null) {
+            createdContext.lease.close();
+        }
+        executors.close();
         LOGGER.info("Destroyed {} cloud provider '{}'", cloudProviderType.getHumanReadableName(), getName());
+
+        if (!failures.isEmpty()) {
+            final RuntimeException firstFailure = failures.get(0);
+            failures.subList(1, failures.size()).forEach(firstFailure::addSuppressed);
+            throw firstFailure;
+        }
     }
 
     // typically shouldn't be overridden
@@ -232,9 +591,27 @@ public abstract class AbstractJCloudsCloudProvider implements JCloudsCloudProvid
         return true;
     }
 
+    /**
+     * Returns the JClouds context. If the cloud provider is {@link Config#LAZY_INIT initialized lazily}, the context
+     * is created on the first call.
+     */
     @Override
     public final ComputeServiceContext getComputeServiceContext() {
-        return computeServiceContext;
+        return context().lease.getContext();
+    }
+
+    /**
+     * Returns the Guice injector of the {@link #getComputeServiceContext() JClouds context}.
+     */
+    protected final Injector getGuiceInjector() {
+        return context().lease.getInjector();
+    }
+
+    /**
+     * Returns the socket finder of the {@link #getComputeServiceContext() JClouds context}.
+     */
+    protected final OpenSocketFinder getSocketFinder() {
+        return context().socketFinder;
     }
 
     public final ObjectProperties getObjectProperties() {
@@ -1,6 +1,6 @@
 package org.wildfly.extras.sunstone.api.impl;
 
-import java.io.File;
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -8,21 +8,27 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
 
 import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 import org.jclouds.compute.ComputeService;
 import org.jclouds.compute.ComputeServiceContext;
+import org.jclouds.compute.extensions.ImageExtension;
 import org.jclouds.compute.RunNodesException;
-import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.compute.domain.Image;
+import org.jclouds.compute.domain.ImageTemplate;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.util.OpenSocketFinder;
-import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
 import org.jclouds.ssh.SshClient;
 import org.slf4j.Logger;
@@ -30,11 +36,17 @@ import org.wildfly.extras.sunstone.api.ConfigProperties;
 import org.wildfly.extras.sunstone.api.ExecResult;
 import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
 import org.wildfly.extras.sunstone.api.PortOpeningTimeoutException;
+import org.wildfly.extras.sunstone.api.ProvisioningEvent;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsNode;
 import org.wildfly.extras.sunstone.api.process.ExecBuilder;
+import org.wildfly.extras.sunstone.api.ssh.TailOutputStream;
 
+import com.google.common.base.Optional;
 import com.google.common.base.Strings;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 
 /**
  * <p>
@@ -106,9 +118,20 @@ import com.google.common.collect.Iterables;
 public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvider> implements JCloudsNode {
     private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
 
+    // separates the image name and the fingerprint in names of baked images
+    private static final String BAKED_IMAGE_SEPARATOR = "-sunstone-";
+
     private static final int SSH_CONNECTION_RETRIES = 12;
     private static final int SSH_CONNECTION_WAIT_BETWEEN_RETRIES = 5000; // milliseconds
 
+    private static final long DEFAULT_NODE_METADATA_CACHE_TTL_MS = 1000;
+
+    private static final int MAX_COPY_ERROR_OUTPUT = 8 * 1024;
+
+    private static final int DEFAULT_SSH_POOL_MAX_SESSIONS = 8;
+    private static final long DEFAULT_SSH_POOL_IDLE_TIMEOUT_SEC = 60;
+    private static final long DEFAULT_SSH_POOL_VALIDATE_AFTER_SEC = 5;
+
     protected final CP cloudProvider;
     protected final ComputeServiceContext computeServiceContext;
     protected final ComputeService computeService;
@@ -116,12 +139,39 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
     protected final OpenSocketFinder socketFinder;
     protected final String nodeGroupName;
 
+    private final long provisioningStartNanos = System.nanoTime();
+    // durations of provisioning phases (summed if a phase happens more than once), guarded by itself
+    private final Map<ProvisioningPhase, Long> provisioningTimings = new EnumMap<>(ProvisioningPhase.class);
+    private volatile boolean provisioned;
+
+    // fingerprint of the base image and the boot script, only set for nodes which support baking images
+    private volatile String imageFingerprint;
+    private volatile boolean bootScriptBaked;
+    // the configured boot script, resolved on first use
+    private volatile BootScript bootScript;
+
+    private final NodeMetadataCache nodeMetadataCache;
+
+    private final SshSessionPool sshSessionPool;
+    // the check whether /etc/sudoers has to be fixed is done for the first SSH session only
+    private final AtomicBoolean sudoersChecked = new AtomicBoolean();
+    // only the first SSH connect is recorded as the SSH_CONNECT provisioning phase
+    private final AtomicBoolean sshConnectRecorded = new AtomicBoolean();
+
     protected AbstractJCloudsNode(CP cloudProvider, String name, Map<String, String> configOverrides) {
         this.cloudProvider = cloudProvider;
         this.computeServiceContext = cloudProvider.getComputeServiceContext();
         this.computeService = computeServiceContext.getComputeService();
         this.objectProperties = new ObjectProperties(ObjectType.NODE, name, configOverrides);
-        this.socketFinder = cloudProvider.socketFinder;
+        this.socketFinder = cloudProvider.getSocketFinder();
+        this.nodeMetadataCache = new NodeMetadataCache(this::getFreshNodeMetadata, objectProperties
+                .getPropertyAsLong(Config.Node.Shared.NODE_METADATA_CACHE_TTL_MS, DEFAULT_NODE_METADATA_CACHE_TTL_MS));
+        this.sshSessionPool = new SshSessionPool(name,
+                objectProperties.getPropertyAsInt(Config.Node.Shared.SSH_POOL_MAX_SESSIONS, DEFAULT_SSH_POOL_MAX_SESSIONS),
+                TimeUnit.SECONDS.toMillis(objectProperties.getPropertyAsLong(Config.Node.Shared.SSH_POOL_IDLE_TIMEOUT_SEC,
+                        DEFAULT_SSH_POOL_IDLE_TIMEOUT_SEC)),
+                TimeUnit.SECONDS.toMillis(objectProperties.getPropertyAsLong(Config.Node.Shared.SSH_POOL_VALIDATE_AFTER_SEC,
+                        DEFAULT_SSH_POOL_VALIDATE_AFTER_SEC)));
 
         String nodeGroup = NodeGroupUtil.nodeGroupName(objectProperties, cloudProvider.objectProperties);
         nodeGroup = cloudProvider.postProcessNodeGroupWhenCreatingNode(nodeGroup);
@@ -139,9 +189,131 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         // in this case, less abstraction is better
     }
 
-    /** Support method for subclasses that use it to actually start the node. */
+    /**
+     * Support method for subclasses that use it to actually start the node. If the node is started as a part of
+     * {@link org.wildfly.extras.sunstone.api.CloudProvider#createNodes(String...) createNodes}, it may be created
+     * together with other nodes that use an identical template.
+     */
     protected final NodeMetadata createNode(Template template) throws RunNodesException {
-        return Iterables.getOnlyElement(computeService.createNodesInGroup(nodeGroupName, 1, template));
+        final long start = System.nanoTime();
+        final ProvisioningBatch.Party batchParty = ProvisioningBatch.currentParty();
+        final NodeMetadata nodeMetadata = batchParty != null
+                ? batchParty.createNode(computeService, nodeGroupName, template)
+                : Iterables.getOnlyElement(computeService.createNodesInGroup(nodeGroupName, 1, template));
+        provisioningPhaseFinished(ProvisioningPhase.CREATE_NODES_IN_GROUP, start);
+        return nodeMetadata;
+    }
+
+    /**
+     * Records that given phase of starting this node, which started at {@code startNanos} (a {@link System#nanoTime()}
+     * value), has just finished, and notifies the {@link org.wildfly.extras.sunstone.api.ProvisioningListener
+     * provisioning listeners} of the cloud provider.
+     */
+    protected final void provisioningPhaseFinished(ProvisioningPhase phase, long startNanos) {
+        final long endNanos = System.nanoTime();
+        synchronized (provisioningTimings) {
+            provisioningTimings.merge(phase, endNanos - startNanos, Long::sum);
+        }
+        cloudProvider.fireProvisioningEvent(new ProvisioningEvent(cloudProvider.getName(), getName(), phase,
+                startNanos, endNanos));
+    }
+
+    final void provisioningFinished() {
+        provisioningPhaseFinished(ProvisioningPhase.READY, provisioningStartNanos);
+        provisioned = true;
+    }
+
+    /**
+     * Support method for subclasses whose cloud can create images from nodes (see {@link #bakeImage(String)}). Computes
+     * the fingerprint of given base image and the boot script and, if the {@link Config.Node.Shared#BAKED_IMAGE_PREFER}
+     * property is enabled and an image baked with the same fingerprint exists in given region, returns that image
+     * instead of the base image. The boot script is then not run again.
+     *
+     * @param baseImageId full ID of the configured image
+     * @return full ID of the image the node should be started from
+     */
+    protected final String preferBakedImage(String baseImageId, String region) {
+        imageFingerprint = bootScriptFingerprint(baseImageId);
+
+        final String preferPropertyName = cloudProvider.getProviderSpecificPropertyName(objectProperties,
+                Config.Node.Shared.BAKED_IMAGE_PREFER);
+        if (!objectProperties.getPropertyAsBoolean(preferPropertyName, false)) {
+            return baseImageId;
+        }
+        final ResolvedImage bakedImage = ResolvedImage.bakedImage(BAKED_IMAGE_SEPARATOR + imageFingerprint, region,
+                computeService);
+        if (bakedImage == null) {
+            LOGGER.debug("No baked image with fingerprint {} found for node '{}'", imageFingerprint, getName());
+            return baseImageId;
+        }
+        LOGGER.info("Node '{}' will be started from baked image {}", getName(), bakedImage.humanReadableName);
+        markBootScriptBaked();
+        return bakedImage.fullId;
+    }
+
+    /**
+     * Returns a fingerprint (a short hex string) of given base image and the boot script of this node, i.e. of what
+     * the node looks like after the boot script finished.
+     */
+    protected final String bootScriptFingerprint(String baseImageId) {
+        final Hasher hasher = Hashing.sha256().newHasher().putString(baseImageId, StandardCharsets.UTF_8).putByte((byte) 0);
+        try {
+            final BootScript script = bootScript();
+            if (script.isConfigured()) {
+                hasher.putBytes(script.content());
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Error reading boot script of node '" + getName() + "'", e);
+        }
+        return hasher.hash().toString().substring(0, 16);
+    }
+
+    /**
+     * Returns whether a boot script is configured for this node.
+     */
+    protected final boolean hasBootScript() {
+        return bootScript().isConfigured();
+    }
+
+    /**
+     * Marks that the node is started from an image which already contains the result of the boot script, so
+     * {@link #handleBootScript()} doesn't run it again.
+     */
+    protected final void markBootScriptBaked() {
+        bootScriptBaked = true;
+    }
+
+    /**
+     * Creates an image from this node using the JClouds {@link ImageExtension}, if the subclass supports baking
+     * (see {@link #preferBakedImage(String, String)}).
+     */
+    @Override
+    public String bakeImage(String imageName) throws OperationNotSupportedException, InterruptedException {
+        Objects.requireNonNull(imageName, "Image name has to be provided.");
+        final Optional<ImageExtension> imageExtension = computeService.getImageExtension();
+        if (imageFingerprint == null || !imageExtension.isPresent()) {
+            throw new OperationNotSupportedException("Baking an image is not supported for "
+                    + cloudProvider.getCloudProviderType().getHumanReadableName() + " node '" + getName() + "'");
+        }
+        final String bakedImageName = imageName + BAKED_IMAGE_SEPARATOR + imageFingerprint;
+        LOGGER.info("Baking image '{}' from node '{}'", bakedImageName, getName());
+        final ImageTemplate imageTemplate = imageExtension.get().buildImageTemplateFromNode(bakedImageName,
+                getInitialNodeMetadata().getId());
+        try {
+            final Image image = imageExtension.get().createImage(imageTemplate).get();
+            LOGGER.info("Baked image '{}' ({}) from node '{}'", bakedImageName, image.getId(), getName());
+            return image.getId();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Baking image '" + bakedImageName + "' from node '" + getName() + "' failed",
+                    e.getCause());
+        }
+    }
+
+    @Override
+    public final Map<ProvisioningPhase, Long> getProvisioningTimings() {
+        synchronized (provisioningTimings) {
+            return Collections.unmodifiableMap(new EnumMap<>(provisioningTimings));
+        }
     }
 
     @Override
@@ -168,13 +340,15 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         int[] ports = Pattern.compile(",").splitAsStream(portsString).filter(s -> !Strings.isNullOrEmpty(s))
                 .mapToInt(Integer::parseInt).toArray();
         int timeout = objectProperties.getPropertyAsInt(propertyName, 60);
+        final long start = System.nanoTime();
         waitForPorts(timeout, ports);
+        provisioningPhaseFinished(ProvisioningPhase.PORT_WAIT, start);
     }
 
     @Override
     public void waitForPorts(long timeoutSeconds, int... portNrs) throws PortOpeningTimeoutException {
         LOGGER.debug("Waiting for ports {} with timeout {} sec on node '{}'", portNrs, timeoutSeconds, getName());
-        NodeMetadata nodeMetadata = getFreshNodeMetadata();
+        NodeMetadata nodeMetadata = getCachedNodeMetadata();
         for (int port : portNrs) {
             try {
                 socketFinder.findOpenSocketOnNode(nodeMetadata, port, timeoutSeconds, TimeUnit.SECONDS);
@@ -226,21 +400,19 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
             remoteTarget = remoteTarget + "/" + localSrc.getFileName();
         }
 
-        SshClient sshClient = null;
+        SshClient sshClient = borrowSshSession(this::getSsh);
         try {
-            sshClient = getSsh();
             sshClient.put(remoteTarget, Payloads.newPayload(localSrc.toFile()));
             SunstoneCoreLogger.SSH.debug("Copied local path '{}' to remote target '{}' on node '{}'", localSrc, remoteTarget,
                     getName());
         } finally {
-            if (sshClient != null) {
-                sshClient.disconnect();
-            }
+            sshSessionPool.release(sshClient);
         }
     }
 
     /**
-     * Copies a remote file or folder to the local machine.
+     * Copies a remote file or folder to the local machine. A single SSH command checks the remote file and streams it
+     * as a tar archive (gzipped if {@code gzip} is available on the node), so nothing is written to the node's disk.
      *
      * @param remoteSrc path to remote file of folder
      * @param localTarget path to local folder, or, if {@code remoteSrc} is a file, also a file
@@ -263,53 +435,85 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         SunstoneCoreLogger.SSH.debug("Copying remote path '{}' on node '{}' to local target '{}'", remoteSrc, getName(),
                 localTarget);
 
-        SshUtils.FileType remoteFileType = SshUtils.FileType
-                .fromExitCode(exec("sh", "-c", SshUtils.FileType.getShellTestStr(remoteSrc)).getExitCode());
-        if (remoteFileType == SshUtils.FileType.NA) {
+        final Path remoteFile = Paths.get(remoteSrc);
+        final String remoteParent;
+        final String remoteName;
+        if (remoteFile.getFileName() == null) {
+            // the root directory, its content is archived
+            remoteParent = "/";
+            remoteName = ".";
+        } else {
+            remoteParent = remoteFile.getParent() != null ? remoteFile.getParent().toString() : ".";
+            remoteName = remoteFile.getFileName().toString();
+        }
+        // a single command checks the file type, which is written to stdout as one character ('F' or 'D') followed by
+        // the tar archive (gzipped if gzip is available); nothing is written if the file doesn't exist
+        final String command = "cd " + SshUtils.shellQuote(remoteParent) + " 2>/dev/null || exit 0; "
+                + "F=" + SshUtils.shellQuote(remoteName) + "; "
+                + "if [ -f \"$F\" ]; then printf F; elif [ -d \"$F\" ]; then printf D; else exit 0; fi; "
+                + "if command -v gzip >/dev/null 2>&1; then "
+                // exits with the exit code of tar, not of gzip
+                + "exec 4>&1; exit $({ { tar cf - \"$F\"; echo $? >&3; } | gzip -1 >&4; } 3>&1); "
+                + "else exec tar cf - \"$F\"; fi";
+        SunstoneCoreLogger.SSH.debug("Using command '{}' to stream remote file from node '{}'", command, getName());
+
+        final TailOutputStream stderr = new TailOutputStream(MAX_COPY_ERROR_OUTPUT);
+        final AtomicBoolean found = new AtomicBoolean();
+        final int exitCode;
+        try (org.wildfly.extras.sunstone.api.ssh.SshClient ssh = ssh()) {
+            exitCode = ssh.execAndRead("sh -c " + SshUtils.shellQuote(command), stdout -> {
+                final BufferedInputStream in = new BufferedInputStream(stdout, 64 * 1024);
+                final int fileTypeChar = in.read();
+                if (fileTypeChar == -1) {
+                    return;
+                }
+                found.set(true);
+                final SshUtils.FileType remoteFileType = fileTypeChar == 'D' ? SshUtils.FileType.DIRECTORY
+                        : SshUtils.FileType.FILE;
+                final SshUtils.FileType localFileType = SshUtils.FileType.fromPath(localTarget);
+                if (localFileType == SshUtils.FileType.FILE && remoteFileType == SshUtils.FileType.DIRECTORY) {
+                    // the command is closed, which stops the remote tar
+                    throw new IllegalArgumentException(
+                            "Unable to copy remote directory " + remoteSrc + " to local regular file " + localTarget);
+                }
+
+                in.mark(2);
+                final boolean gzipped = in.read() == 0x1f && in.read() == 0x8b;
+                in.reset();
+                final TarInputStream tis = new TarInputStream(gzipped ? new GZIPInputStream(in, 64 * 1024) : in);
+                if (remoteFileType == SshUtils.FileType.DIRECTORY) {
+                    SshUtils.untarFolder(tis, localTarget, localFileType == SshUtils.FileType.NA ? remoteName : null);
+                } else {
+                    SshUtils.untarFile(tis, localTarget, localFileType == SshUtils.FileType.DIRECTORY);
+                }
+                while (tis.getNextEntry() != null) {
+                    // just skip
+                }
+            }, stderr);
+        } catch (IOException e) {
+            logCopyErrorOutput(remoteSrc, stderr);
+            throw e;
+        }
+
+        if (exitCode != 0) {
+            throw copyFailed(remoteSrc, exitCode, stderr);
+        }
+        if (!found.get()) {
             throw new FileNotFoundException("Source file " + remoteSrc + " doesn't exist in node " + getName());
         }
+        SunstoneCoreLogger.SSH.debug("Copied remote path '{}' on node '{}' to local target '{}'", remoteSrc, getName(),
+                localTarget);
+    }
 
-        SshUtils.FileType localFileType = SshUtils.FileType.fromPath(localTarget);
-        if (localFileType == SshUtils.FileType.FILE && remoteFileType == SshUtils.FileType.DIRECTORY) {
-            throw new IllegalArgumentException(
-                    "Unable to copy remote directory " + remoteSrc + " to local regular file " + localTarget);
-        }
-
-        SshClient sshClient = getSsh();
-        Path remoteFile = Paths.get(remoteSrc);
-        String remoteTarSrc = remoteFile.getParent() + "/" + remoteFile.getFileName() + ".tar"; // TODO: separators for other
-                                                                                                // platforms?
-        String command = "cd " + remoteFile.getParent().toString() + " ; tar " + "cf " + remoteTarSrc + " "
-                + remoteFile.getFileName().toString();
-        SunstoneCoreLogger.SSH.debug("Using command '{}' to tar remote file on node '{}'", command, getName());
-        ExecResponse execResponse = sshClient.exec(command);
-        if (execResponse.getExitStatus() != 0) {
-            SunstoneCoreLogger.SSH.warn("Error output when copying file on node '{}': {}", getName(), execResponse.getError());
-            throw new IllegalStateException("File cannot be copied successfully. Return code of remote tar archive creation is "
-                    + execResponse.getExitStatus());
-        }
-
-        Payload payload = sshClient.get(remoteTarSrc);
-
-        try (TarInputStream tis = new TarInputStream(payload.openStream())) {
-            if (remoteFileType == SshUtils.FileType.DIRECTORY) {
-                SshUtils.untarFolder(tis, localTarget,
-                        localFileType == SshUtils.FileType.NA ? new File(remoteSrc).getName() : null);
-            } else {
-                SshUtils.untarFile(tis, localTarget, localFileType == SshUtils.FileType.DIRECTORY);
-            }
+    private IllegalStateException copyFailed(String remoteSrc, int exitCode, TailOutputStream stderr) {
+        logCopyErrorOutput(remoteSrc, stderr);
+        return new IllegalStateException("File cannot be copied successfully. Return code of remote tar archive creation is "
+                + exitCode);
+    }
 
-            while (tis.getNextEntry() != null) {
-                // just skip
-            }
-        } catch (IOException e) {
-            throw new RuntimeException(
-                    "Copying file " + remoteSrc + " from node " + getInitialNodeMetadata().getId() + " failed", e);
-        } finally {
-            exec("rm", remoteTarSrc); // TODO why not sshClient.exec(), like above for the 'tar' command?
-            sshClient.disconnect();
-            SunstoneCoreLogger.SSH.debug("Copied remote path '{}' on node '{}' to local target '{}'", remoteSrc, getName(),
-                    localTarget);
+    private void logCopyErrorOutput(String remoteSrc, TailOutputStream stderr) {
+        if (stderr.getTotalBytes() > 0) {
+            SunstoneCoreLogger.SSH.warn("Error output when copying file {} on node '{}': {}", remoteSrc, getName(), stderr);
         }
     }
 
@@ -319,17 +523,17 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
      */
     @Override
     public boolean isRunning() throws OperationNotSupportedException {
-        return getFreshNodeMetadata().getStatus() == NodeMetadata.Status.RUNNING;
+        return getCachedNodeMetadata().getStatus() == NodeMetadata.Status.RUNNING;
     }
 
     @Override
     public String getPublicAddress() {
-        return Iterables.getFirst(getFreshNodeMetadata().getPublicAddresses(), null);
+        return Iterables.getFirst(getCachedNodeMetadata().getPublicAddresses(), null);
     }
 
     @Override
     public String getPrivateAddress() {
-        return Iterables.getFirst(getFreshNodeMetadata().getPrivateAddresses(), null);
+        return Iterables.getFirst(getCachedNodeMetadata().getPrivateAddresses(), null);
     }
 
     /**
@@ -345,7 +549,7 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         portNr = getPublicTcpPort(portNr);
         LOGGER.debug("Checking if port is open {} on node '{}'", portNr, getName());
         try {
-            socketFinder.findOpenSocketOnNode(getFreshNodeMetadata(), portNr, 0, TimeUnit.SECONDS);
+            socketFinder.findOpenSocketOnNode(getCachedNodeMetadata(), portNr, 0, TimeUnit.SECONDS);
             return true;
         } catch (Exception e) {
             return false;
@@ -357,12 +561,45 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         return new JCloudsSshClient(this);
     }
 
+    /**
+     * Returns the pool of SSH sessions of this node, see {@link SshSessionPool}.
+     */
+    final SshSessionPool getSshSessionPool() {
+        return sshSessionPool;
+    }
+
+    /**
+     * Borrows a session from the {@link #getSshSessionPool() SSH session pool}, connecting a new one by given connector if
+     * there's no idle session. The first connect while the node is being provisioned is recorded as the
+     * {@link ProvisioningPhase#SSH_CONNECT} phase.
+     */
+    final SshClient borrowSshSession(SshSessionPool.Connector connector)
+            throws OperationNotSupportedException, InterruptedException {
+        return sshSessionPool.borrow(() -> {
+            final long start = System.nanoTime();
+            final SshClient session = connector.connect();
+            if (!provisioned && sshConnectRecorded.compareAndSet(false, true)) {
+                provisioningPhaseFinished(ProvisioningPhase.SSH_CONNECT, start);
+            }
+            return session;
+        });
+    }
+
+    /**
+     * Returns {@code true} for the first caller only, which is then responsible for fixing {@code /etc/sudoers} if
+     * needed (see {@link Config.Node.Shared#SSH_FIX_SUDOERS}).
+     */
+    final boolean startSudoersCheck() {
+        return sudoersChecked.compareAndSet(false, true);
+    }
+
     /**
      * This method takes care of establishing a working ssh channel between the program and remote instance. The reason for
      * retrying the connection is that for some providers (EC2 for example) the authentication fails for a short period of time
      * (~30 sec) even after the ports are open.
      *
-     * It is user's responsibility to close the sshClient properly ({@code sshClient.disconnect()})
+     * It is user's responsibility to close the sshClient properly ({@code sshClient.disconnect()}). The returned client
+     * is not pooled, see {@link #ssh()} for a pooled one.
      *
      * @throws IllegalStateException when the client could not be obtained or did not successfully connect
      */
@@ -370,7 +607,7 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         SshClient sshClient = null;
         boolean connected = false;
 
-        NodeMetadata nodeMetadata = getFreshNodeMetadata();
+        NodeMetadata nodeMetadata = getCachedNodeMetadata();
 
         for (int i = 0; i < SSH_CONNECTION_RETRIES; i++) {
             sshClient = cloudProvider.getComputeServiceContext().utils().sshForNode().apply(nodeMetadata);
@@ -420,7 +657,7 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         LOGGER.debug("Waiting for status '{}' on node '{}' (timeout {}s)", targetStatus.name(), getName(), timeoutInSeconds);
         long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(timeoutInSeconds);
         while (System.currentTimeMillis() < endTime) {
-            NodeMetadata.Status status = getFreshNodeMetadata().getStatus();
+            NodeMetadata.Status status = refreshNodeMetadata().getStatus();
             if (status != null && status.equals(targetStatus)) {
                 LOGGER.debug("Node '{}' is in status '{}'", getName(), targetStatus.name());
                 return true;
@@ -449,7 +686,50 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
 
     @Override
     public final void close() {
-        cloudProvider.destroyNode(this);
+        try {
+            sshSessionPool.close();
+            cloudProvider.destroyNode(this);
+        } finally {
+            invalidateNodeMetadata();
+        }
+    }
+
+    /**
+     * Returns the node metadata from the per-node cache, if they are not older than
+     * {@link Config.Node.Shared#NODE_METADATA_CACHE_TTL_MS}; otherwise calls {@link #getFreshNodeMetadata()}.
+     */
+    @Override
+    public final NodeMetadata getCachedNodeMetadata() {
+        return nodeMetadataCache.get();
+    }
+
+    /**
+     * Calls {@link #getFreshNodeMetadata()} and stores the result in the node metadata cache.
+     */
+    public final NodeMetadata refreshNodeMetadata() {
+        return nodeMetadataCache.refresh();
+    }
+
+    /**
+     * Called before a released node is returned to the warm node pool (see {@link Config#POOL_NODES}). Returns whether
+     * the node can be leased again; the default implementation checks with fresh node metadata that the node is still
+     * running. Nothing on the node is cleaned up.
+     */
+    protected boolean prepareForPool() {
+        return refreshNodeMetadata().getStatus() == NodeMetadata.Status.RUNNING;
+    }
+
+    /**
+     * Drops the cached node metadata and disconnects idle pooled SSH sessions. Subclasses which override {@code start},
+     * {@code stop} or {@code kill} must call it after they change the node state.
+     */
+    protected final void invalidateNodeMetadata() {
+        nodeMetadataCache.invalidate();
+        sshSessionPool.clear();
+    }
+
+    public final NodeMetadataCacheStatistics getNodeMetadataCacheStatistics() {
+        return nodeMetadataCache.getStatistics();
     }
 
     /**
@@ -458,6 +738,7 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
     public void stop() throws OperationNotSupportedException {
         LOGGER.info("Stopping {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
         computeService.suspendNode(getInitialNodeMetadata().getId());
+        invalidateNodeMetadata();
         final String timeoutPropertyName = cloudProvider.getProviderSpecificPropertyName(objectProperties,
                 Config.Node.Shared.STOP_TIMEOUT_SEC);
         final int timeoutInSec = objectProperties.getPropertyAsInt(timeoutPropertyName, 300);
@@ -471,6 +752,7 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
     public void start() throws OperationNotSupportedException {
         LOGGER.info("Starting {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
         computeService.resumeNode(getInitialNodeMetadata().getId());
+        invalidateNodeMetadata();
         final String timeoutPropertyName = cloudProvider.getProviderSpecificPropertyName(objectProperties,
                 Config.Node.Shared.START_TIMEOUT_SEC);
         final int timeoutInSec = objectProperties.getPropertyAsInt(timeoutPropertyName, 300);
@@ -489,7 +771,19 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         stop();
     }
 
-    protected void handleBootScript() throws IOException, InterruptedException {
+    /**
+     * Returns the configured boot script, which is resolved from the configuration only once per node.
+     */
+    private BootScript bootScript() {
+        BootScript result = bootScript;
+        if (result == null) {
+            result = resolveBootScript();
+            bootScript = result;
+        }
+        return result;
+    }
+
+    private BootScript resolveBootScript() {
         final boolean isUserDataPropertyProviderSpecific = cloudProvider.hasProviderSpecificPropertyName(objectProperties,
                 Config.Node.Shared.BOOT_SCRIPT);
         final boolean isUserDataFilePropertyProviderSpecific = cloudProvider.hasProviderSpecificPropertyName(objectProperties,
@@ -514,20 +808,73 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
         }
         if (!Strings.isNullOrEmpty(script)) {
             LOGGER.debug("The following script string will be run on node '{}': '{}'", getName(), script);
-            scriptPath = Files.createTempFile("tmpOnBootScript", ".sh");
-            final File file = scriptPath.toFile();
-            FilesUtils.setNotWorldReadablePermissions(file);
-            file.deleteOnExit();
-            Files.write(scriptPath, script.getBytes(StandardCharsets.UTF_8), StandardOpenOption.WRITE);
+            return new BootScript(script, null);
+        }
+        return new BootScript(null, scriptPath);
+    }
+
+    /**
+     * A boot script, either given inline or as a path to a file, or none.
+     */
+    private static final class BootScript {
+        private final String inline;
+        private final Path file;
+
+        private BootScript(String inline, Path file) {
+            this.inline = inline;
+            this.file = file;
+        }
+
+        boolean isConfigured() {
+            return inline != null || file != null;
         }
-        if (scriptPath != null) {
+
+        byte[] content() throws IOException {
+            return inline != null ? inline.getBytes(StandardCharsets.UTF_8) : Files.readAllBytes(file);
+        }
+
+        /**
+         * Returns the file of the boot script; an inline boot script is written to a new temporary file, which has to
+         * be deleted by the caller (see {@link #isTemporary(Path)}).
+         */
+        Path toFile() throws IOException {
+            if (file != null) {
+                return file;
+            }
+            final Path tempFile = Files.createTempFile("tmpOnBootScript", ".sh");
+            FilesUtils.setNotWorldReadablePermissions(tempFile.toFile());
+            Files.write(tempFile, inline.getBytes(StandardCharsets.UTF_8), StandardOpenOption.WRITE);
+            return tempFile;
+        }
+
+        boolean isTemporary(Path path) {
+            return !path.equals(file);
+        }
+    }
+
+    /**
+     * Called by {@link #handleBootScript()} after the boot script was run. Does nothing by default.
+     */
+    protected void bootScriptFinished(ExecResult result) {
+    }
+
+    protected void handleBootScript() throws IOException, InterruptedException {
+        if (bootScriptBaked) {
+            LOGGER.info("Node '{}' was started from a baked image, its boot script is not run again", getName());
+            return;
+        }
+        final BootScript script = bootScript();
+        if (script.isConfigured()) {
             waitForStartPorts(Config.Node.Shared.BOOT_SCRIPT_WAIT_FOR_PORTS_PREFIX);
+            final Path scriptPath = script.toFile();
             LOGGER.debug("Script from file '{}' will be run on node '{}'", scriptPath, getName());
             try {
                 final String remotePathPropertyName = cloudProvider.getProviderSpecificPropertyName(objectProperties,
                         Config.Node.Shared.BOOT_SCRIPT_REMOTE_PATH);
                 final String remotePath = objectProperties.getProperty(remotePathPropertyName, "/tmp/onBootScript.sh");
+                long start = System.nanoTime();
                 this.copyFileToNode(scriptPath, remotePath);
+                provisioningPhaseFinished(ProvisioningPhase.BOOT_SCRIPT_UPLOAD, start);
                 final ExecBuilder execBuilder = ExecBuilder.fromCommand("sh", remotePath);
 
                 final String withSudoPropertyName = cloudProvider.getProviderSpecificPropertyName(objectProperties,
@@ -536,10 +883,17 @@ public abstract class AbstractJCloudsNode<CP extends AbstractJCloudsCloudProvide
                 if (withSudo) {
                     execBuilder.withSudo();
                 }
+                start = System.nanoTime();
                 ExecResult result = execBuilder.exec(this);
+                provisioningPhaseFinished(ProvisioningPhase.BOOT_SCRIPT_RUN, start);
                 LOGGER.trace("BootScript execution result on node '{}': {}", getName(), result);
+                bootScriptFinished(result);
             } catch (IOException e) {
                 throw new IllegalArgumentException("Error opening bootScript file " + scriptPath, e);
+            } finally {
+                if (script.isTemporary(scriptPath)) {
+                    Files.deleteIfExists(scriptPath);
+                }
             }
         }
     }
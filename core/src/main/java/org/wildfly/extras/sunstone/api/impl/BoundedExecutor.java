@@ -0,0 +1,184 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link Executor} which runs at most given number of tasks at a time on a delegate executor (that is expected to start
+ * a new thread, or reuse an idle one, for each task). What happens to tasks submitted when the limit is reached is
+ * controlled by the {@link QueuePolicy}.
+ */
+final class BoundedExecutor implements Executor {
+
+    /**
+     * What to do with a task submitted when the max number of tasks is already running.
+     */
+    enum QueuePolicy {
+        /** The task waits in an unbounded queue until a running task finishes. */
+        QUEUE,
+        /** The task is run directly by the submitting thread. */
+        CALLER_RUNS,
+        /** The task is rejected by throwing {@link RejectedExecutionException}. */
+        ABORT;
+
+        static QueuePolicy fromLabel(String label) {
+            switch (label.trim().toLowerCase(Locale.ENGLISH)) {
+                case "queue":
+                    return QUEUE;
+                case "callerruns":
+                    return CALLER_RUNS;
+                case "abort":
+                    return ABORT;
+                default:
+                    throw new IllegalArgumentException("Unsupported queue policy '" + label
+                            + "', expected one of 'queue', 'callerRuns', 'abort'");
+            }
+        }
+    }
+
+    private final Executor delegate;
+    private final int maxRunning;
+    private final QueuePolicy queuePolicy;
+
+    // guarded by "this"
+    private final Queue<Runnable> queue = new ArrayDeque<>();
+    private int running;
+    private boolean closed;
+
+    BoundedExecutor(Executor delegate, int maxRunning, QueuePolicy queuePolicy) {
+        if (maxRunning < 1) {
+            throw new IllegalArgumentException("Max number of running tasks must be positive, was " + maxRunning);
+        }
+        this.delegate = Objects.requireNonNull(delegate);
+        this.maxRunning = maxRunning;
+        this.queuePolicy = Objects.requireNonNull(queuePolicy);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task, "task");
+        final boolean callerRuns;
+        synchronized (this) {
+            if (closed) {
+                throw new RejectedExecutionException("Executor is closed");
+            }
+            callerRuns = running >= maxRunning;
+            if (callerRuns) {
+                switch (queuePolicy) {
+                    case QUEUE:
+                        queue.add(task);
+                        return;
+                    case ABORT:
+                        throw new RejectedExecutionException("All " + maxRunning + " threads are busy");
+                    default:
+                        break;
+                }
+            } else {
+                running++;
+            }
+        }
+        if (callerRuns) {
+            task.run();
+        } else {
+            submit(wrap(task));
+        }
+    }
+
+    private BoundedTask wrap(Runnable task) {
+        return new BoundedTask(task);
+    }
+
+    private void submit(BoundedTask task) {
+        try {
+            delegate.execute(task);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                running--;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stops accepting new tasks and runs the queued ones in the calling thread, so that nobody waits for a task which
+     * would never be started. Tasks which are already running are left to finish.
+     */
+    void close() {
+        final List<Runnable> queued;
+        synchronized (this) {
+            closed = true;
+            queued = new ArrayList<>(queue);
+            queue.clear();
+        }
+        runAll(queued);
+    }
+
+    /**
+     * Hands the running counter of a finished task over to the next queued task. If the delegate doesn't accept more
+     * tasks (typically because it was shut down), the queued tasks are run in the current thread rather than dropped.
+     */
+    private void taskFinished() {
+        final List<Runnable> rejected = new ArrayList<>();
+        try {
+            while (true) {
+                final Runnable next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        running--;
+                        return;
+                    }
+                }
+                try {
+                    delegate.execute(wrap(next));
+                    return;
+                } catch (RejectedExecutionException e) {
+                    rejected.add(next);
+                }
+            }
+        } finally {
+            runAll(rejected);
+        }
+    }
+
+    private static void runAll(List<Runnable> tasks) {
+        RuntimeException failure = null;
+        for (Runnable task : tasks) {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private final class BoundedTask implements Runnable {
+        private final Runnable task;
+
+        private BoundedTask(Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                task.run();
+            } finally {
+                taskFinished();
+            }
+        }
+    }
+}
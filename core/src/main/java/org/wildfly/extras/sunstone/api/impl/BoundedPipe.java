@@ -0,0 +1,166 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+
+/**
+ * A pipe with a fixed size buffer between a thread that produces data (e.g. reads remote process output from
+ * the network) and a thread that consumes them. Unlike {@link java.io.PipedInputStream}, it doesn't depend on the
+ * liveness of the threads which used it last, and when the consumer {@link InputStream#close() closes} its end,
+ * further data are discarded, so that the producer never blocks on an abandoned pipe.
+ */
+public final class BoundedPipe {
+    public static final int DEFAULT_CAPACITY = 64 * 1024;
+
+    private final byte[] buffer;
+    // all guarded by "this"
+    private int readPos;
+    private int count;
+    private boolean sinkClosed;
+    private boolean sourceClosed;
+    private IOException failure;
+
+    private final InputStream source = new Source();
+    private final OutputStream sink = new Sink();
+
+    public BoundedPipe() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public BoundedPipe(int capacity) {
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * The end from which the consumer reads. Reads block until data are available or the sink is closed.
+     */
+    public InputStream source() {
+        return source;
+    }
+
+    /**
+     * The end to which the producer writes. Writes block while the buffer is full and the source is open.
+     */
+    public OutputStream sink() {
+        return sink;
+    }
+
+    /**
+     * Closes the sink; the consumer gets the end of stream after reading the remaining data.
+     */
+    public synchronized void closeSink() {
+        sinkClosed = true;
+        notifyAll();
+    }
+
+    /**
+     * Closes the sink so that the consumer gets given exception (after reading the remaining data) instead of
+     * the end of stream.
+     */
+    public synchronized void fail(IOException e) {
+        failure = e;
+        sinkClosed = true;
+        notifyAll();
+    }
+
+    private final class Source extends InputStream {
+        @Override
+        public int read() throws IOException {
+            final byte[] single = new byte[1];
+            return read(single, 0, 1) < 0 ? -1 : single[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            synchronized (BoundedPipe.this) {
+                while (count == 0) {
+                    if (sourceClosed) {
+                        throw new IOException("Pipe closed");
+                    }
+                    if (sinkClosed) {
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        return -1;
+                    }
+                    awaitChange();
+                }
+                final int n = Math.min(len, Math.min(count, buffer.length - readPos));
+                System.arraycopy(buffer, readPos, b, off, n);
+                readPos = (readPos + n) % buffer.length;
+                count -= n;
+                BoundedPipe.this.notifyAll();
+                return n;
+            }
+        }
+
+        @Override
+        public int available() {
+            synchronized (BoundedPipe.this) {
+                return count;
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (BoundedPipe.this) {
+                sourceClosed = true;
+                count = 0;
+                BoundedPipe.this.notifyAll();
+            }
+        }
+    }
+
+    private final class Sink extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            synchronized (BoundedPipe.this) {
+                while (len > 0) {
+                    if (sinkClosed) {
+                        throw new IOException("Pipe closed");
+                    }
+                    if (sourceClosed) {
+                        // nobody will read the data
+                        return;
+                    }
+                    if (count == buffer.length) {
+                        awaitChange();
+                        continue;
+                    }
+                    final int writePos = (readPos + count) % buffer.length;
+                    final int n = Math.min(len, Math.min(buffer.length - count, buffer.length - writePos));
+                    System.arraycopy(b, off, buffer, writePos, n);
+                    count += n;
+                    off += n;
+                    len -= n;
+                    BoundedPipe.this.notifyAll();
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            closeSink();
+        }
+    }
+
+    // must be called while holding the lock
+    private void awaitChange() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting on pipe");
+        }
+    }
+}
@@ -49,6 +49,90 @@ public final class Config {
      */
     public static final String LEAVE_NODES_RUNNING = "leaveNodesRunning";
 
+    /**
+     * Key suffix for {@link ObjectProperties} to specify how many seconds closing the cloud provider waits for its nodes
+     * to be destroyed. Only applies to cloud provider configuration.
+     */
+    public static final String CLOSE_TIMEOUT_SEC = "close.timeoutSec";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify whether the cloud provider can share its JClouds
+     * {@code ComputeServiceContext} with other cloud providers of the same type and the same effective configuration
+     * (e.g. endpoint and credentials). Only applies to cloud provider configuration.
+     */
+    public static final String SHARED_CONTEXT = "sharedContext";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify whether the cloud provider postpones creating its JClouds
+     * context until it's first needed (typically when the first node is created). Only applies to cloud provider
+     * configuration.
+     */
+    public static final String LAZY_INIT = "lazyInit";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify whether a {@link #LAZY_INIT lazily initialized} cloud provider
+     * creates its JClouds context in the background right after the cloud provider is created. Only applies to cloud
+     * provider configuration.
+     */
+    public static final String LAZY_INIT_PREWARM = "lazyInit.prewarm";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify whether nodes started together by
+     * {@link org.wildfly.extras.sunstone.api.CloudProvider#createNodes(String...) createNodes} should be created
+     * by a single cloud API call when they use an identical template. Only applies to cloud provider configuration.
+     */
+    public static final String CREATE_NODES_BATCH = "createNodes.batch";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify how many nodes the cloud provider creates concurrently
+     * (e.g. in {@link org.wildfly.extras.sunstone.api.CloudProvider#createNodes(String...) createNodes}).
+     * Only applies to cloud provider configuration.
+     */
+    public static final String EXECUTOR_MAX_CONCURRENT_CREATIONS = "executor.maxConcurrentCreations";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify how many nodes the cloud provider destroys concurrently.
+     * Only applies to cloud provider configuration.
+     */
+    public static final String EXECUTOR_MAX_CONCURRENT_DESTROYS = "executor.maxConcurrentDestroys";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify what happens with a node creation or destroy task when
+     * the max number of concurrent tasks is reached: {@code queue} (the default), {@code callerRuns} or {@code abort}.
+     * Only applies to cloud provider configuration.
+     */
+    public static final String EXECUTOR_QUEUE_POLICY = "executor.queuePolicy";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify whether node creation and destroy tasks run on virtual threads
+     * (only has effect on Java 21+). Only applies to cloud provider configuration.
+     */
+    public static final String EXECUTOR_VIRTUAL_THREADS = "executor.virtualThreads";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify a comma separated list of node names for which the cloud provider
+     * keeps a warm pool of started nodes. Only applies to cloud provider configuration.
+     */
+    public static final String POOL_NODES = "pool.nodes";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify how many started nodes the warm pool keeps ready for each pooled
+     * node name. Only applies to cloud provider configuration.
+     */
+    public static final String POOL_MIN_IDLE = "pool.minIdle";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify the maximum number of idle nodes (including the returned ones)
+     * the warm pool keeps for each pooled node name. Only applies to cloud provider configuration.
+     */
+    public static final String POOL_SIZE = "pool.size";
+
+    /**
+     * Key suffix for {@link ObjectProperties} to specify how long (in seconds) a node can stay idle in the warm pool
+     * before it's destroyed and replaced. Only applies to cloud provider configuration.
+     */
+    public static final String POOL_MAX_AGE_SEC = "pool.maxAgeSec";
+
     /**
      * Cloud provider related keys
      */
@@ -69,6 +153,10 @@ public final class Config {
             public static final String TLS_CERT_PATH = "docker.tls.cert";
             public static final String TLS_CA_CERT_PATH = "docker.tls.ca.cert";
             public static final String TLS_KEY_PATH = "docker.tls.key";
+            public static final String EVENTS = "docker.events";
+            public static final String PREFETCH_IMAGES = "docker.prefetchImages";
+            public static final String PREFETCH_IMAGES_NODES = "docker.prefetchImages.nodes";
+            public static final String NETWORK = "docker.network";
         }
 
         /**
@@ -136,12 +224,21 @@ public final class Config {
 
             public static final String BOOT_SCRIPT_WAIT_FOR_PORTS_PREFIX = "bootScript.";
 
+            public static final String BAKED_IMAGE_PREFER = "bakedImage.prefer";
+
+            public static final String NODE_METADATA_CACHE_TTL_MS = "nodeMetadata.cacheTtlMs";
+
             public static final String STOP_TIMEOUT_SEC = "stop.timeoutSec";
             public static final String START_TIMEOUT_SEC = "start.timeoutSec";
 
             public static final String SUDO_COMMAND = "sudo.command";
 
             public static final String SSH_FIX_SUDOERS = "ssh.fixSudoers";
+
+            public static final String SSH_POOL_MAX_SESSIONS = "ssh.pool.maxSessions";
+            public static final String SSH_POOL_IDLE_TIMEOUT_SEC = "ssh.pool.idleTimeoutSec";
+            public static final String SSH_POOL_VALIDATE_AFTER_SEC = "ssh.pool.validateAfterSec";
+            public static final String SSH_MAX_CHANNELS = "ssh.maxChannels";
         }
 
         /**
@@ -153,6 +250,7 @@ public final class Config {
              * key for Docker image name (or id)
              */
             public static final String IMAGE = "docker.image";
+            public static final String IMAGE_PULL_POLICY = "docker.image.pullPolicy";
 
             public static final String NETWORK_MODE = "docker.networkMode";
 
@@ -182,6 +280,12 @@ public final class Config {
 
             public static final String ENV_NAME_SSH_PORT = "DOCKER_SSH_PORT";
 
+            public static final String BOOT_SCRIPT_CACHE = "docker.bootScript.cache";
+            public static final String BOOT_SCRIPT_CACHE_MAX_AGE_SEC = "docker.bootScript.cache.maxAgeSec";
+            public static final String BOOT_SCRIPT_CACHE_MAX_IMAGES = "docker.bootScript.cache.maxImages";
+
+            public static final String COMMAND_TRANSPORT = "docker.commandTransport";
+
         }
 
         /**
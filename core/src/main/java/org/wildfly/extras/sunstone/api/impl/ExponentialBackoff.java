@@ -4,27 +4,40 @@ import org.slf4j.Logger;
 
 /**
  * Provides an exponentially increasing delay ({@code Thread.sleep}) from the provided initial value
- * up to 10 seconds. Say the initial delay was 100 millis, then the 1st call to {@code delay} will wait
- * 100 millis, the 2nd call will wait 200 millis, then 400 millis, then 800 millis, then 1.6 seconds,
- * then 3.2 seconds, then 6.4 seconds, and each call since then will wait 10 seconds which is the maximum.
+ * up to a maximum, which is 10 seconds by default. Say the initial delay was 100 millis, then the 1st call to
+ * {@code delay} will wait 100 millis, the 2nd call will wait 200 millis, then 400 millis, then 800 millis, then
+ * 1.6 seconds, then 3.2 seconds, then 6.4 seconds, and each call since then will wait 10 seconds which is the maximum.
  */
 final class ExponentialBackoff {
     private static final Logger LOGGER = SunstoneCoreLogger.SSH;
 
-    // TODO configurable?
-    private static final int MAX_DELAY = 10 * 1000;
+    private static final int DEFAULT_MAX_DELAY = 10 * 1000;
 
+    private final int maxDelay;
     private int delay;
 
     ExponentialBackoff(int initialDelayInMillis) {
+        this(initialDelayInMillis, DEFAULT_MAX_DELAY);
+    }
+
+    ExponentialBackoff(int initialDelayInMillis, int maxDelayInMillis) {
         this.delay = initialDelayInMillis;
+        this.maxDelay = maxDelayInMillis;
     }
 
     void delay() throws InterruptedException {
-        LOGGER.trace("Waiting {} millis", delay);
+        delay(Long.MAX_VALUE);
+    }
+
+    /**
+     * Like {@link #delay()}, but doesn't wait longer than {@code limitInMillis}, e.g. the time left until a deadline.
+     */
+    void delay(long limitInMillis) throws InterruptedException {
+        final long millis = Math.max(0, Math.min(delay, limitInMillis));
+        LOGGER.trace("Waiting {} millis", millis);
 
-        Thread.sleep(delay);
+        Thread.sleep(millis);
 
-        delay = Math.min(MAX_DELAY, 2 * delay);
+        delay = Math.min(maxDelay, 2 * delay);
     }
 }
@@ -11,6 +11,9 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 public class JCloudsCommandExecution implements CommandExecution {
+    private static final int INITIAL_POLL_DELAY_MILLIS = 1;
+    private static final int MAX_POLL_DELAY_MILLIS = 5;
+
     private final ExecChannel jclouds;
 
     public JCloudsCommandExecution(ExecChannel jclouds) {
@@ -32,34 +35,29 @@ public class JCloudsCommandExecution implements CommandExecution {
         return jclouds.getError();
     }
 
+    /**
+     * Polls the exit status, which the SSH channel records when the remote process exits. Reading it is cheap, so it's
+     * polled every few milliseconds and the method returns almost as soon as the process exits.
+     */
     @Override
     public void await() throws InterruptedException {
-        ExponentialBackoff backoff = new ExponentialBackoff(100);
-        while (true) {
-            Integer exitStatus = jclouds.getExitStatus().get();
-            if (exitStatus != null) {
-                return;
-            }
-
+        ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_POLL_DELAY_MILLIS, MAX_POLL_DELAY_MILLIS);
+        while (jclouds.getExitStatus().get() == null) {
             backoff.delay();
         }
     }
 
     @Override
     public void await(long timeout, TimeUnit timeoutUnit) throws InterruptedException, TimeoutException {
-        ExponentialBackoff backoff = new ExponentialBackoff(100);
-        long endTime = System.currentTimeMillis() + timeoutUnit.toMillis(timeout);
-        while (System.currentTimeMillis() < endTime) {
-            Integer exitStatus = jclouds.getExitStatus().get();
-            if (exitStatus != null) {
-                return;
+        ExponentialBackoff backoff = new ExponentialBackoff(INITIAL_POLL_DELAY_MILLIS, MAX_POLL_DELAY_MILLIS);
+        final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+        while (jclouds.getExitStatus().get() == null) {
+            final long remainingNanos = deadline - System.nanoTime();
+            if (remainingNanos <= 0) {
+                throw new TimeoutException();
             }
-
-            backoff.delay();
-        }
-
-        if (jclouds.getExitStatus().get() == null) {
-            throw new TimeoutException();
+            // rounded up, so that the last wait doesn't end just before the deadline
+            backoff.delay(TimeUnit.NANOSECONDS.toMillis(remainingNanos + 999_999));
         }
     }
 
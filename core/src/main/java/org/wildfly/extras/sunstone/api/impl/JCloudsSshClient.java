@@ -2,7 +2,13 @@ package org.wildfly.extras.sunstone.api.impl;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import org.jclouds.compute.domain.ExecChannel;
@@ -11,6 +17,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.io.Payload;
 import org.jclouds.io.Payloads;
 import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.ExecResult;
 import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
 import org.wildfly.extras.sunstone.api.ssh.CommandExecution;
 import org.wildfly.extras.sunstone.api.ssh.SshClient;
@@ -18,14 +25,55 @@ import org.wildfly.extras.sunstone.api.ssh.SshClient;
 public final class JCloudsSshClient implements SshClient {
     private static final Logger LOGGER = SunstoneCoreLogger.SSH;
 
+    // OpenSSH allows 10 channels per connection by default (MaxSessions)
+    private static final int DEFAULT_MAX_CHANNELS = 10;
+    private static final long CHANNELS_CLOSE_TIMEOUT_SEC = 10;
+
+    private final SshSessionPool pool;
     private final org.jclouds.ssh.SshClient jclouds;
+    private final String nodeName;
+    private final int maxChannels;
+    // commands submitted by submit() which didn't finish yet
+    private final Set<CompletableFuture<ExecResult>> submitted = ConcurrentHashMap.newKeySet();
+    // created by the first submit(), guarded by this
+    private ThreadPoolExecutor channelExecutor;
+    // guarded by this
+    private boolean closed;
 
     /**
+     * Borrows an SSH session from the pool of given node, connecting a new one if there's no idle session. The session is
+     * returned to the pool by {@link #close()}.
+     *
      * @throws OperationNotSupportedException when connecting to SSH fails, presumably because there's no SSH server
      * @throws InterruptedException when interrupted while waiting for SSH to connect
      */
     public JCloudsSshClient(AbstractJCloudsNode<?> node) throws OperationNotSupportedException, InterruptedException {
+        this.pool = node.getSshSessionPool();
+        final org.jclouds.ssh.SshClient jcloudsSshClient = node.borrowSshSession(() -> connect(node));
+        try {
+            if (node.startSudoersCheck() && isSudoersFixRequired(node, jcloudsSshClient)) {
+                // see https://bugzilla.redhat.com/show_bug.cgi?id=1020147
+                LOGGER.trace("Removing 'Defaults requiretty' from /etc/sudoers so that sudo works without a PTY");
+                ExecResponse result = jcloudsSshClient
+                        .exec("sudo -n sed -i -e 's/^Defaults[ ]\\+requiretty/#Defaults requiretty/' /etc/sudoers");
+                if (result.getExitStatus() != 0) {
+                    LOGGER.warn("Failed removing 'Defaults requiretty' from /etc/sudoers, running with sudo might not work");
+                    LOGGER.debug("stdout: {}", result.getOutput());
+                    LOGGER.debug("stderr: {}", result.getError());
+                }
+            }
+        } catch (RuntimeException e) {
+            pool.discard(jcloudsSshClient);
+            throw e;
+        }
+        this.jclouds = jcloudsSshClient;
+        this.nodeName = node.getName();
+        this.maxChannels = Math.max(1, node.config().getPropertyAsInt(Config.Node.Shared.SSH_MAX_CHANNELS,
+                DEFAULT_MAX_CHANNELS));
+    }
 
+    private static org.jclouds.ssh.SshClient connect(AbstractJCloudsNode<?> node)
+            throws OperationNotSupportedException, InterruptedException {
         org.jclouds.ssh.SshClient jcloudsSshClient = null;
         boolean connected = false;
 
@@ -33,7 +81,7 @@ public final class JCloudsSshClient implements SshClient {
         long endTime = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(1);
         int count = 1;
         while (System.currentTimeMillis() < endTime) {
-            NodeMetadata nodeMetadata = node.getFreshNodeMetadata();
+            NodeMetadata nodeMetadata = node.getCachedNodeMetadata();
             jcloudsSshClient = node.getCloudProvider().getComputeServiceContext().utils().sshForNode().apply(nodeMetadata);
 
             if (jcloudsSshClient != null) {
@@ -62,20 +110,7 @@ public final class JCloudsSshClient implements SshClient {
             SunstoneCoreLogger.SSH.warn("Failed to establish SSH connection to node '{}'", node.getName());
             throw new OperationNotSupportedException("Failed to establish SSH connection to node '" + node.getName() + "'");
         }
-
-        if (isSudoersFixRequired(node, jcloudsSshClient)) {
-            // see https://bugzilla.redhat.com/show_bug.cgi?id=1020147
-            LOGGER.trace("Removing 'Defaults requiretty' from /etc/sudoers so that sudo works without a PTY");
-            ExecResponse result = jcloudsSshClient
-                    .exec("sudo -n sed -i -e 's/^Defaults[ ]\\+requiretty/#Defaults requiretty/' /etc/sudoers");
-            if (result.getExitStatus() != 0) {
-                LOGGER.warn("Failed removing 'Defaults requiretty' from /etc/sudoers, running with sudo might not work");
-                LOGGER.debug("stdout: {}", result.getOutput());
-                LOGGER.debug("stderr: {}", result.getError());
-            }
-        }
-
-        this.jclouds = jcloudsSshClient;
+        return jcloudsSshClient;
     }
 
     @Override
@@ -84,6 +119,48 @@ public final class JCloudsSshClient implements SshClient {
         return new JCloudsCommandExecution(execChannel);
     }
 
+    /**
+     * Runs the command in its own channel of the SSH session of this client. At most
+     * {@link Config.Node.Shared#SSH_MAX_CHANNELS} commands run at once, others wait in submission order.
+     */
+    @Override
+    public CompletableFuture<ExecResult> submit(String command) {
+        final CompletableFuture<ExecResult> result = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("SSH client for node '" + nodeName + "' is closed");
+            }
+            if (channelExecutor == null) {
+                final AtomicInteger threadCounter = new AtomicInteger();
+                channelExecutor = new ThreadPoolExecutor(maxChannels, maxChannels, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(), runnable -> {
+                            Thread thread = new Thread(runnable,
+                                    "sunstone-ssh-" + nodeName + "-" + threadCounter.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+                channelExecutor.allowCoreThreadTimeOut(true);
+            }
+            submitted.add(result);
+            result.whenComplete((r, e) -> submitted.remove(result));
+            channelExecutor.execute(() -> {
+                if (result.isDone()) {
+                    // cancelled while waiting for a channel
+                    return;
+                }
+                try {
+                    result.complete(execAndWait(command));
+                } catch (IOException | RuntimeException e) {
+                    result.completeExceptionally(e);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result.completeExceptionally(e);
+                }
+            });
+        }
+        return result;
+    }
+
     @Override
     public InputStream get(String path) throws IOException {
         Payload payload = jclouds.get(path);
@@ -95,10 +172,33 @@ public final class JCloudsSshClient implements SshClient {
         jclouds.put(path, Payloads.newInputStreamPayload(data.get()));
     }
 
+    /**
+     * Cancels {@link #submit(String) submitted} commands which didn't finish and returns the SSH session to the pool of
+     * the node.
+     */
     @Override
-    public void close() {
-        if (jclouds != null) {
-            jclouds.disconnect();
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        boolean channelsClosed = true;
+        if (channelExecutor != null) {
+            submitted.forEach(future -> future.cancel(false));
+            channelExecutor.shutdownNow();
+            try {
+                channelsClosed = channelExecutor.awaitTermination(CHANNELS_CLOSE_TIMEOUT_SEC, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                channelsClosed = false;
+            }
+        }
+        if (channelsClosed) {
+            pool.release(jclouds);
+        } else {
+            // a command is still running in a channel of the session, it can't be reused
+            LOGGER.debug("Commands submitted to node '{}' didn't stop in time, disconnecting the SSH session", nodeName);
+            pool.discard(jclouds);
         }
     }
 
@@ -109,7 +209,7 @@ public final class JCloudsSshClient implements SshClient {
      * @param jcloudsSshClient SSH client instance
      * @return true if fix is required by node configuration and "/etc/sudoers" file exists, false otherwise
      */
-    private boolean isSudoersFixRequired(AbstractJCloudsNode<?> node, org.jclouds.ssh.SshClient jcloudsSshClient) {
+    private static boolean isSudoersFixRequired(AbstractJCloudsNode<?> node, org.jclouds.ssh.SshClient jcloudsSshClient) {
         final String fixSudoersPropertyName = node.getCloudProvider().getProviderSpecificPropertyName(node.config(),
                 Config.Node.Shared.SSH_FIX_SUDOERS);
 
@@ -0,0 +1,85 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jclouds.compute.domain.NodeMetadata;
+
+/**
+ * Caches the {@link NodeMetadata} of a single node for a configured time, so that frequent calls of e.g.
+ * {@link AbstractJCloudsNode#getPublicAddress()} don't hit the cloud API every time. See
+ * {@link Config.Node.Shared#NODE_METADATA_CACHE_TTL_MS}.
+ */
+final class NodeMetadataCache {
+
+    private final Supplier<NodeMetadata> loader;
+    private final long ttlNanos;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    private volatile Entry entry;
+    // incremented by each invalidation, so that a load which was running meanwhile doesn't store stale metadata;
+    // guarded by this
+    private long generation;
+
+    NodeMetadataCache(Supplier<NodeMetadata> loader, long ttlMillis) {
+        this.loader = loader;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+    }
+
+    /**
+     * Returns the cached metadata if they are not older than the TTL, otherwise loads them.
+     */
+    NodeMetadata get() {
+        final Entry current = entry;
+        if (current != null && System.nanoTime() - current.loadedNanos < ttlNanos) {
+            hits.incrementAndGet();
+            return current.metadata;
+        }
+        misses.incrementAndGet();
+        return load();
+    }
+
+    /**
+     * Loads the metadata regardless of the TTL.
+     */
+    NodeMetadata refresh() {
+        return load();
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entry = null;
+    }
+
+    NodeMetadataCacheStatistics getStatistics() {
+        return new NodeMetadataCacheStatistics(hits.get(), misses.get());
+    }
+
+    private NodeMetadata load() {
+        final long loadGeneration;
+        synchronized (this) {
+            loadGeneration = generation;
+        }
+        final long loadedNanos = System.nanoTime();
+        final NodeMetadata metadata = loader.get();
+        if (metadata != null && ttlNanos > 0) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entry = new Entry(metadata, loadedNanos);
+                }
+            }
+        }
+        return metadata;
+    }
+
+    private static final class Entry {
+        final NodeMetadata metadata;
+        final long loadedNanos;
+
+        Entry(NodeMetadata metadata, long loadedNanos) {
+            this.metadata = metadata;
+            this.loadedNanos = loadedNanos;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+/**
+ * Snapshot of node metadata cache counters of a node. Just a DTO.
+ *
+ * @see AbstractJCloudsNode#getNodeMetadataCacheStatistics()
+ */
+public final class NodeMetadataCacheStatistics {
+
+    private final long hits;
+    private final long misses;
+
+    public NodeMetadataCacheStatistics(long hits, long misses) {
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    /** Number of requests for node metadata served from the cache. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Number of requests for node metadata which had to call the cloud API. */
+    public long getMisses() {
+        return misses;
+    }
+
+    @Override
+    public String toString() {
+        return "NodeMetadataCacheStatistics [hits=" + hits + ", misses=" + misses + "]";
+    }
+}
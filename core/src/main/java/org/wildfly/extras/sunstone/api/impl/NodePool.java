@@ -0,0 +1,328 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+
+import com.google.common.base.Strings;
+
+/**
+ * Warm pool of fully started nodes (i.e. nodes whose boot script already ran and whose start ports are open) owned by
+ * a single cloud provider. The pool keeps {@link Config#POOL_MIN_IDLE} idle nodes ready for each node name listed in
+ * {@link Config#POOL_NODES} and refills itself in the background whenever a node is leased. Nodes which stay idle in the
+ * pool longer than {@link Config#POOL_MAX_AGE_SEC} are destroyed and replaced. Released nodes are only checked to be
+ * running (see {@link AbstractJCloudsNode#prepareForPool()}) before they're returned to the pool, they are not cleaned:
+ * files and processes left by the previous lessee stay on the node.
+ */
+final class NodePool implements AutoCloseable {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private final AbstractJCloudsCloudProvider cloudProvider;
+    private final Set<String> nodeNames;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long maxAgeNanos;
+
+    // guarded by "this"
+    private final Map<String, Deque<PooledNode>> idleNodes = new HashMap<>();
+    private final Map<String, AtomicInteger> pendingRefills = new HashMap<>();
+    private boolean closed;
+
+    // only used for evicting expired nodes (null if they don't expire), the nodes are created by the cloud provider's
+    // creation executor
+    private final ScheduledExecutorService scheduler;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong refills = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private NodePool(AbstractJCloudsCloudProvider cloudProvider, Set<String> nodeNames, int minIdle, int maxIdle,
+            long maxAgeSec) {
+        this.cloudProvider = cloudProvider;
+        this.nodeNames = Collections.unmodifiableSet(nodeNames);
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.maxAgeNanos = TimeUnit.SECONDS.toNanos(maxAgeSec);
+        for (String nodeName : nodeNames) {
+            idleNodes.put(nodeName, new ArrayDeque<>());
+            pendingRefills.put(nodeName, new AtomicInteger());
+        }
+
+        if (maxAgeSec > 0) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "sunstone-pool-" + cloudProvider.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Creates a node pool for given cloud provider based on its configuration, or returns {@code null} if the pool
+     * isn't configured.
+     */
+    static NodePool create(AbstractJCloudsCloudProvider cloudProvider, ObjectProperties objectProperties) {
+        final String nodesString = objectProperties.getProperty(Config.POOL_NODES, "");
+        final Set<String> nodeNames = new LinkedHashSet<>();
+        Pattern.compile(",").splitAsStream(nodesString).map(String::trim).filter(s -> !Strings.isNullOrEmpty(s))
+                .forEach(nodeNames::add);
+        if (nodeNames.isEmpty()) {
+            return null;
+        }
+
+        final int minIdle = objectProperties.getPropertyAsInt(Config.POOL_MIN_IDLE, 1);
+        final int maxIdle = objectProperties.getPropertyAsInt(Config.POOL_SIZE, minIdle);
+        final long maxAgeSec = objectProperties.getPropertyAsLong(Config.POOL_MAX_AGE_SEC, 0L);
+        if (minIdle < 0 || maxIdle < minIdle) {
+            throw new IllegalArgumentException("Invalid node pool configuration of cloud provider '"
+                    + cloudProvider.getName() + "': " + Config.POOL_MIN_IDLE + "=" + minIdle + ", " + Config.POOL_SIZE
+                    + "=" + maxIdle);
+        }
+        if (maxAgeSec < 0) {
+            throw new IllegalArgumentException("Invalid node pool configuration of cloud provider '"
+                    + cloudProvider.getName() + "': " + Config.POOL_MAX_AGE_SEC + "=" + maxAgeSec);
+        }
+
+        NodePool pool = new NodePool(cloudProvider, nodeNames, minIdle, maxIdle, maxAgeSec);
+        LOGGER.info("Warming up node pool of cloud provider '{}' for nodes {} (min idle {}, size {})",
+                cloudProvider.getName(), nodeNames, minIdle, maxIdle);
+        nodeNames.forEach(pool::scheduleRefills);
+        if (pool.scheduler != null) {
+            long period = Math.max(1L, maxAgeSec / 2);
+            pool.scheduler.scheduleWithFixedDelay(pool::evictExpired, period, period, TimeUnit.SECONDS);
+        }
+        return pool;
+    }
+
+    boolean isPooled(String nodeName) {
+        return nodeNames.contains(nodeName);
+    }
+
+    /**
+     * Takes an idle node with given name out of the pool. Returns {@code null} (and counts a miss) if there's no idle
+     * node available. In both cases, the pool is refilled in the background.
+     */
+    AbstractJCloudsNode<?> take(String nodeName) {
+        PooledNode pooledNode = null;
+        final List<PooledNode> expired = new ArrayList<>();
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Node pool of cloud provider '" + cloudProvider.getName() + "' is closed");
+            }
+            Deque<PooledNode> idle = idleNodes.get(nodeName);
+            while (pooledNode == null && !idle.isEmpty()) {
+                PooledNode candidate = idle.pollFirst();
+                if (candidate.isExpired()) {
+                    expired.add(candidate);
+                } else {
+                    pooledNode = candidate;
+                }
+            }
+        }
+        expired.forEach(this::evict);
+
+        if (pooledNode != null) {
+            hits.incrementAndGet();
+            LOGGER.debug("Node pool hit for node '{}' on cloud provider '{}'", nodeName, cloudProvider.getName());
+        } else {
+            misses.incrementAndGet();
+            LOGGER.debug("Node pool miss for node '{}' on cloud provider '{}'", nodeName, cloudProvider.getName());
+        }
+        scheduleRefills(nodeName);
+        return pooledNode == null ? null : pooledNode.node;
+    }
+
+    /**
+     * Gives a previously leased node back to the pool. If the node can't be reused (e.g. it was stopped in between), or
+     * the pool is already full (or closed), the node is destroyed.
+     */
+    void giveBack(AbstractJCloudsNode<?> node) {
+        final String nodeName = node.getName();
+        if (!isReusable(node)) {
+            cloudProvider.destroyInCloud(node);
+            return;
+        }
+        synchronized (this) {
+            Deque<PooledNode> idle = idleNodes.get(nodeName);
+            if (!closed && idle != null && idle.size() < maxIdle) {
+                idle.addLast(new PooledNode(node));
+                LOGGER.debug("Node '{}' returned to the pool of cloud provider '{}'", nodeName, cloudProvider.getName());
+                return;
+            }
+        }
+        LOGGER.debug("Node pool of cloud provider '{}' is full, destroying returned node '{}'", cloudProvider.getName(),
+                nodeName);
+        cloudProvider.destroyInCloud(node);
+    }
+
+    private boolean isReusable(AbstractJCloudsNode<?> node) {
+        try {
+            if (node.prepareForPool()) {
+                return true;
+            }
+            LOGGER.debug("Returned node '{}' isn't running, destroying it instead of returning it to the pool of cloud "
+                    + "provider '{}'", node.getName(), cloudProvider.getName());
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to prepare returned node '{}' for the pool of cloud provider '{}', destroying it",
+                    node.getName(), cloudProvider.getName(), e);
+        }
+        return false;
+    }
+
+    private void scheduleRefills(String nodeName) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            AtomicInteger pending = pendingRefills.get(nodeName);
+            int missing = minIdle - idleNodes.get(nodeName).size() - pending.get();
+            for (int i = 0; i < missing; i++) {
+                pending.incrementAndGet();
+                try {
+                    cloudProvider.getCreationExecutor().execute(() -> refill(nodeName));
+                } catch (RejectedExecutionException e) {
+                    pending.decrementAndGet();
+                    LOGGER.debug("Refilling the node pool of cloud provider '{}' postponed, all threads are busy",
+                            cloudProvider.getName());
+                    break;
+                }
+            }
+        }
+    }
+
+    private void refill(String nodeName) {
+        AbstractJCloudsNode<?> node = null;
+        try {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+            }
+            node = cloudProvider.provisionNode(nodeName, null);
+            refills.incrementAndGet();
+
+            boolean keep = false;
+            synchronized (this) {
+                if (!closed) {
+                    idleNodes.get(nodeName).addLast(new PooledNode(node));
+                    keep = true;
+                }
+            }
+            if (!keep) {
+                cloudProvider.destroyInCloud(node);
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to pre-provision node '{}' for the pool of cloud provider '{}'", nodeName,
+                    cloudProvider.getName(), e);
+        } finally {
+            synchronized (this) {
+                pendingRefills.get(nodeName).decrementAndGet();
+                notifyAll();
+            }
+        }
+    }
+
+    private void evictExpired() {
+        final List<PooledNode> expired = new ArrayList<>();
+        synchronized (this) {
+            for (Deque<PooledNode> idle : idleNodes.values()) {
+                idle.removeIf(pooledNode -> pooledNode.isExpired() && expired.add(pooledNode));
+            }
+        }
+        expired.forEach(this::evict);
+        nodeNames.forEach(this::scheduleRefills);
+    }
+
+    private void evict(PooledNode pooledNode) {
+        evictions.incrementAndGet();
+        LOGGER.debug("Evicting node '{}' from the pool of cloud provider '{}', it reached its max age",
+                pooledNode.node.getName(), cloudProvider.getName());
+        try {
+            cloudProvider.destroyInCloud(pooledNode.node);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to destroy evicted node '{}'", pooledNode.node.getName(), e);
+        }
+    }
+
+    NodePoolStatistics getStatistics() {
+        int idle;
+        synchronized (this) {
+            idle = idleNodes.values().stream().mapToInt(Deque::size).sum();
+        }
+        return new NodePoolStatistics(hits.get(), misses.get(), refills.get(), evictions.get(), idle);
+    }
+
+    /**
+     * Stops refilling and destroys all idle nodes. Refills which are in progress are destroyed as soon as they finish.
+     */
+    @Override
+    public void close() {
+        final List<PooledNode> toDestroy = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            idleNodes.values().forEach(toDestroy::addAll);
+            idleNodes.values().forEach(Deque::clear);
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+
+        RuntimeException failure = null;
+        for (PooledNode pooledNode : toDestroy) {
+            try {
+                cloudProvider.destroyInCloud(pooledNode.node);
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        synchronized (this) {
+            // refills in progress destroy their nodes when they finish
+            while (pendingRefills.values().stream().anyMatch(pending -> pending.get() > 0)) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private final class PooledNode {
+        private final AbstractJCloudsNode<?> node;
+        private final long createdAt = System.nanoTime();
+
+        private PooledNode(AbstractJCloudsNode<?> node) {
+            this.node = node;
+        }
+
+        private boolean isExpired() {
+            return maxAgeNanos > 0 && System.nanoTime() - createdAt > maxAgeNanos;
+        }
+    }
+}
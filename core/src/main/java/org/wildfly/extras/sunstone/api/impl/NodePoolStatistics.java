@@ -0,0 +1,54 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+/**
+ * Snapshot of warm node pool counters of a cloud provider. Just a DTO.
+ *
+ * @see AbstractJCloudsCloudProvider#getNodePoolStatistics()
+ */
+public final class NodePoolStatistics {
+
+    private final long hits;
+    private final long misses;
+    private final long refills;
+    private final long evictions;
+    private final int idleNodes;
+
+    public NodePoolStatistics(long hits, long misses, long refills, long evictions, int idleNodes) {
+        this.hits = hits;
+        this.misses = misses;
+        this.refills = refills;
+        this.evictions = evictions;
+        this.idleNodes = idleNodes;
+    }
+
+    /** Number of leases served by an already started node from the pool. */
+    public long getHits() {
+        return hits;
+    }
+
+    /** Number of leases which had to wait for a node to be created, because the pool was empty. */
+    public long getMisses() {
+        return misses;
+    }
+
+    /** Number of nodes started in the background to refill the pool. */
+    public long getRefills() {
+        return refills;
+    }
+
+    /** Number of idle nodes destroyed because they reached the max age. */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /** Number of nodes which were idle in the pool at the time this snapshot was taken. */
+    public int getIdleNodes() {
+        return idleNodes;
+    }
+
+    @Override
+    public String toString() {
+        return "NodePoolStatistics [hits=" + hits + ", misses=" + misses + ", refills=" + refills + ", evictions="
+                + evictions + ", idleNodes=" + idleNodes + "]";
+    }
+}
@@ -13,6 +13,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.apache.commons.lang3.text.StrLookup;
 import org.apache.commons.lang3.text.StrSubstitutor;
@@ -41,6 +42,9 @@ public class ObjectProperties implements ConfigProperties {
     public static final String SYSTEM_PROPERTY_VALUE_DELIMITER_SST = "sunstone.sysprop.value.delimiter";
     public static final String SYSTEM_PROPERTY_VALUE_DELIMITER_DEFAULT = ":";
 
+    // property reads of the current thread are recorded here while running #recordReads
+    private static final ThreadLocal<ReadRecorder> READ_RECORDER = new ThreadLocal<>();
+
     private final Properties properties;
     private final ObjectPropertiesType objectType;
     private final String name;
@@ -171,7 +175,32 @@ public class ObjectProperties implements ConfigProperties {
                 result = template != null ? template.getProperty(propertyName, defaultValue) : defaultValue;
             }
         }
-        return replaceSystemProperties(result);
+        final String value = replaceSystemProperties(result);
+        final ReadRecorder readRecorder = READ_RECORDER.get();
+        if (readRecorder != null) {
+            readRecorder.record(this, propertyName, value);
+        }
+        return value;
+    }
+
+    /**
+     * Runs given action and records all property values it reads (on the current thread, from any
+     * {@code ObjectProperties} instance) into the {@code reads} map. Properties of the {@code root} instance are keyed
+     * by the property name only, so that the recorded values don't depend on the root object name; properties of other
+     * instances are keyed by their system properties key.
+     */
+    static <T> T recordReads(ObjectProperties root, Map<String, String> reads, Supplier<T> action) {
+        final ReadRecorder previous = READ_RECORDER.get();
+        READ_RECORDER.set(new ReadRecorder(root, reads));
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                READ_RECORDER.set(previous);
+            } else {
+                READ_RECORDER.remove();
+            }
+        }
     }
 
     /**
@@ -327,6 +356,20 @@ public class ObjectProperties implements ConfigProperties {
         }
     }
 
+    private static final class ReadRecorder {
+        private final ObjectProperties root;
+        private final Map<String, String> reads;
+
+        private ReadRecorder(ObjectProperties root, Map<String, String> reads) {
+            this.root = root;
+            this.reads = reads;
+        }
+
+        private void record(ObjectProperties objectProperties, String propertyName, String value) {
+            reads.put(objectProperties == root ? propertyName : objectProperties.getSystemPropertiesKey(propertyName), value);
+        }
+    }
+
     private String getKeyPrefix() {
         final StringBuilder sb = new StringBuilder();
         if (objectType != null) {
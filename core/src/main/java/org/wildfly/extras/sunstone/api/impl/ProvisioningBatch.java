@@ -0,0 +1,207 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.RunNodesException;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.Template;
+import org.slf4j.Logger;
+
+import com.google.common.collect.Iterables;
+
+/**
+ * Coordinates creation of nodes which are started together (see
+ * {@link org.wildfly.extras.sunstone.api.CloudProvider#createNodes(String...) CloudProvider.createNodes}), so that nodes
+ * which resolve to an identical node group and {@link Template} are created by a single
+ * {@link ComputeService#createNodesInGroup(String, int, Template)} call.
+ * <p>
+ * Every node started in the batch is a party of the batch. A party either arrives with its template (see
+ * {@link Party#createNode(ComputeService, String, Template)}) and waits, or leaves the batch without creating a node
+ * (e.g. because it failed before). Once all the parties which already started either arrived or left, the arrived ones
+ * are grouped and created. Parties which didn't start yet (e.g. because the executor has a limited number of threads)
+ * are not waited for, they form the next round of the batch.
+ */
+final class ProvisioningBatch {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final ThreadLocal<Party> CURRENT_PARTY = new ThreadLocal<>();
+
+    // guarded by "this"
+    private int onTheWay; // parties which started, but didn't arrive nor leave yet
+    private final List<Request> arrived = new ArrayList<>();
+
+    /**
+     * Registers the current thread as a new party of this batch. The returned party must be closed when the node was
+     * created (or failed to be created).
+     */
+    Party join() {
+        synchronized (this) {
+            onTheWay++;
+        }
+        Party party = new Party();
+        CURRENT_PARTY.set(party);
+        return party;
+    }
+
+    /**
+     * Returns the party of a batch, which the current thread belongs to, or {@code null}.
+     */
+    static Party currentParty() {
+        return CURRENT_PARTY.get();
+    }
+
+    private NodeMetadata createNode(ComputeService computeService, String group, Template template)
+            throws RunNodesException {
+        Request request = new Request(computeService, group, template);
+        synchronized (this) {
+            onTheWay--;
+            arrived.add(request);
+            flushIfReady();
+            while (request.leader == null) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (request.leader == null) {
+                        // not grouped yet, so nobody else relies on this request; it must not be chosen as a leader
+                        // later, because nobody would create the nodes of its group then
+                        arrived.remove(request);
+                        throw new IllegalStateException("Interrupted while waiting for other nodes of the batch", e);
+                    }
+                    // already grouped, the request is completed (and possibly has to create its group) as usual
+                }
+            }
+        }
+
+        if (request.leader == request) {
+            request.createMembers();
+        }
+        try {
+            return request.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for other nodes of the batch", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RunNodesException) {
+                throw (RunNodesException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    // must be called with the lock held
+    private void flushIfReady() {
+        if (onTheWay > 0 || arrived.isEmpty()) {
+            return;
+        }
+
+        Map<List<Object>, List<Request>> groups = new LinkedHashMap<>();
+        for (Request request : arrived) {
+            List<Object> key = new ArrayList<>(3);
+            key.add(request.computeService);
+            key.add(request.group);
+            key.add(request.template);
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(request);
+        }
+        arrived.clear();
+
+        for (List<Request> members : groups.values()) {
+            Request leader = members.get(0);
+            members.forEach(member -> member.leader = leader);
+            leader.members = members;
+        }
+        notifyAll();
+    }
+
+    private final class Request {
+        private final ComputeService computeService;
+        private final String group;
+        private final Template template;
+        private final CompletableFuture<NodeMetadata> result = new CompletableFuture<>();
+
+        // guarded by ProvisioningBatch.this
+        private Request leader;
+        private List<Request> members;
+
+        private Request(ComputeService computeService, String group, Template template) {
+            this.computeService = computeService;
+            this.group = group;
+            this.template = template;
+        }
+
+        private void createMembers() {
+            final int count = members.size();
+            if (count > 1) {
+                LOGGER.debug("Creating {} nodes in group '{}' by a single call", count, group);
+            }
+            try {
+                Set<? extends NodeMetadata> created = computeService.createNodesInGroup(group, count, template);
+                distribute(created, null);
+            } catch (RunNodesException e) {
+                distribute(e.getSuccessfulNodes(), e);
+            } catch (RuntimeException | Error e) {
+                members.forEach(member -> member.result.completeExceptionally(e));
+            }
+        }
+
+        private void distribute(Set<? extends NodeMetadata> created, Throwable failure) {
+            Iterator<? extends NodeMetadata> it = created.iterator();
+            for (Request member : members) {
+                if (it.hasNext()) {
+                    member.result.complete(it.next());
+                } else {
+                    member.result.completeExceptionally(failure != null ? failure
+                            : new IllegalStateException("Expected " + members.size() + " nodes to be created in group '"
+                                    + group + "', but only " + created.size() + " were created"));
+                }
+            }
+        }
+    }
+
+    /**
+     * A node which is being started in a batch.
+     */
+    final class Party implements AutoCloseable {
+        private boolean done;
+
+        /**
+         * Creates a single node, possibly together with other nodes of the batch. Only the first node created by
+         * the party takes part in the batch.
+         */
+        NodeMetadata createNode(ComputeService computeService, String group, Template template) throws RunNodesException {
+            if (done) {
+                return Iterables.getOnlyElement(computeService.createNodesInGroup(group, 1, template));
+            }
+            done = true;
+            return ProvisioningBatch.this.createNode(computeService, group, template);
+        }
+
+        /**
+         * Leaves the batch, if the party didn't arrive yet.
+         */
+        @Override
+        public void close() {
+            CURRENT_PARTY.remove();
+            if (!done) {
+                done = true;
+                synchronized (ProvisioningBatch.this) {
+                    onTheWay--;
+                    flushIfReady();
+                }
+            }
+        }
+    }
+}
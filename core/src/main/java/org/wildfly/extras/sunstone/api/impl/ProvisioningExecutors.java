@@ -0,0 +1,101 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+
+/**
+ * Executors owned by a single cloud provider which run the long blocking operations (creating and destroying nodes),
+ * so that they don't compete with other tasks on {@link java.util.concurrent.ForkJoinPool#commonPool()}. Creations and
+ * destroys have separate limits of concurrently running tasks, see {@link Config#EXECUTOR_MAX_CONCURRENT_CREATIONS}
+ * and {@link Config#EXECUTOR_MAX_CONCURRENT_DESTROYS}.
+ * <p>
+ * On Java 21+, the tasks can be run on virtual threads (see {@link Config#EXECUTOR_VIRTUAL_THREADS}), so that the
+ * limits can be set to what the cloud allows rather than what's reasonable for platform threads.
+ */
+final class ProvisioningExecutors implements AutoCloseable {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final int DEFAULT_MAX_CONCURRENT_CREATIONS = 16;
+    private static final int DEFAULT_MAX_CONCURRENT_DESTROYS = 16;
+
+    private final ExecutorService threads;
+    private final BoundedExecutor creationExecutor;
+    private final BoundedExecutor destroyExecutor;
+
+    private ProvisioningExecutors(ExecutorService threads, int maxCreations, int maxDestroys,
+            BoundedExecutor.QueuePolicy queuePolicy) {
+        this.threads = threads;
+        this.creationExecutor = new BoundedExecutor(threads, maxCreations, queuePolicy);
+        this.destroyExecutor = new BoundedExecutor(threads, maxDestroys, queuePolicy);
+    }
+
+    static ProvisioningExecutors create(String providerName, ObjectProperties objectProperties) {
+        final int maxCreations = objectProperties.getPropertyAsInt(Config.EXECUTOR_MAX_CONCURRENT_CREATIONS,
+                DEFAULT_MAX_CONCURRENT_CREATIONS);
+        final int maxDestroys = objectProperties.getPropertyAsInt(Config.EXECUTOR_MAX_CONCURRENT_DESTROYS,
+                DEFAULT_MAX_CONCURRENT_DESTROYS);
+        final BoundedExecutor.QueuePolicy queuePolicy = BoundedExecutor.QueuePolicy
+                .fromLabel(objectProperties.getProperty(Config.EXECUTOR_QUEUE_POLICY, "queue"));
+
+        ExecutorService threads = null;
+        if (objectProperties.getPropertyAsBoolean(Config.EXECUTOR_VIRTUAL_THREADS, false)) {
+            threads = newVirtualThreadPerTaskExecutor();
+            if (threads == null) {
+                LOGGER.warn("Virtual threads are not available in this JVM, cloud provider '{}' will use platform threads",
+                        providerName);
+            }
+        }
+        if (threads == null) {
+            final AtomicInteger threadCounter = new AtomicInteger();
+            threads = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "sunstone-" + providerName + "-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return new ProvisioningExecutors(threads, maxCreations, maxDestroys, queuePolicy);
+    }
+
+    /**
+     * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} if it's available in this JVM (Java 21+), otherwise
+     * {@code null}. Called reflectively, because the library is compiled for Java 8.
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // e.g. UnsupportedOperationException on Java 19/20 without --enable-preview
+            LOGGER.debug("Virtual threads can't be used", e.getCause());
+            return null;
+        }
+    }
+
+    Executor getCreationExecutor() {
+        return creationExecutor;
+    }
+
+    Executor getDestroyExecutor() {
+        return destroyExecutor;
+    }
+
+    /**
+     * Stops accepting new tasks. Tasks which are already running are left to finish, queued tasks are run in the calling
+     * thread.
+     */
+    @Override
+    public void close() {
+        threads.shutdown();
+        try {
+            creationExecutor.close();
+        } finally {
+            destroyExecutor.close();
+        }
+    }
+}
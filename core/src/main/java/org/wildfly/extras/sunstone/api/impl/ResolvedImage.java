@@ -80,4 +80,24 @@ public final class ResolvedImage {
             }
         }
     }
+
+    /**
+     * Finds an image which was baked from a node (see {@link org.wildfly.extras.sunstone.api.Node#bakeImage(String)})
+     * and whose name ends with given suffix.
+     *
+     * @param nameSuffix        suffix of the baked image name, which contains the fingerprint of the node configuration
+     * @param region            already resolved region/location ID; images from other regions are ignored
+     * @param computeService    the JClouds {@link ComputeService}
+     * @return the baked image or {@code null} if there's none
+     */
+    public static ResolvedImage bakedImage(String nameSuffix, String region, ComputeService computeService) {
+        return computeService.listImages()
+                .stream()
+                .filter(image -> image.getName() != null && image.getName().endsWith(nameSuffix))
+                .filter(image -> image.getLocation() == null || region == null
+                        || region.equals(image.getLocation().getId()))
+                .findFirst()
+                .map(image -> new ResolvedImage(image.getId(), image.getName() + " (" + image.getId() + ")"))
+                .orElse(null);
+    }
 }
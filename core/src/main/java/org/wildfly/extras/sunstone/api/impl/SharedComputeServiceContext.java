@@ -0,0 +1,147 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+import org.jclouds.ContextBuilder;
+import org.jclouds.apis.Apis;
+import org.jclouds.compute.ComputeServiceContext;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.CloudProviderType;
+
+import com.google.common.reflect.TypeToken;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+/**
+ * A {@link ComputeServiceContext} (together with the Guice injector it was built from) which can be shared by cloud
+ * providers with the same effective configuration, so that they don't pay for the jclouds bootstrap repeatedly and share
+ * e.g. the HTTP connection pool.
+ * <p>
+ * The effective configuration are the values of all properties which were read while creating the {@link ContextBuilder}
+ * (see {@link ObjectProperties#recordReads(ObjectProperties, Map, java.util.function.Supplier)}), so two cloud providers
+ * share the context if they e.g. point to the same endpoint with the same credentials. The context is reference
+ * counted and closed when the last cloud provider using it {@link Lease#close() releases} it.
+ */
+final class SharedComputeServiceContext {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    // guarded by itself
+    private static final Map<List<Object>, SharedComputeServiceContext> CACHE = new HashMap<>();
+
+    private final List<Object> key;
+    private final CompletableFuture<SharedComputeServiceContext> built = new CompletableFuture<>();
+    private Injector injector;
+    private ComputeServiceContext context;
+    // guarded by CACHE
+    private int references;
+
+    private SharedComputeServiceContext(List<Object> key) {
+        this.key = key;
+    }
+
+    /**
+     * Returns a context for given cloud provider configuration. If {@code shared} is {@code true} and a context with
+     * the same effective configuration already exists, it's reused, otherwise a new one is built.
+     */
+    static Lease acquire(CloudProviderType cloudProviderType, ObjectProperties objectProperties,
+            Function<ObjectProperties, ContextBuilder> contextBuilderCreator, boolean shared) {
+        if (!shared) {
+            final SharedComputeServiceContext unshared = new SharedComputeServiceContext(null);
+            unshared.references = 1;
+            unshared.build(contextBuilderCreator.apply(objectProperties));
+            return unshared.new Lease();
+        }
+
+        final Map<String, String> reads = new HashMap<>();
+        final ContextBuilder contextBuilder = ObjectProperties.recordReads(objectProperties, reads,
+                () -> contextBuilderCreator.apply(objectProperties));
+        final List<Object> key = Arrays.asList(cloudProviderType, reads);
+
+        final SharedComputeServiceContext sharedContext;
+        final boolean owner;
+        synchronized (CACHE) {
+            SharedComputeServiceContext existing = CACHE.get(key);
+            owner = existing == null;
+            sharedContext = owner ? new SharedComputeServiceContext(key) : existing;
+            if (owner) {
+                CACHE.put(key, sharedContext);
+            }
+            sharedContext.references++;
+        }
+
+        if (owner) {
+            try {
+                sharedContext.build(contextBuilder);
+            } catch (RuntimeException | Error e) {
+                synchronized (CACHE) {
+                    CACHE.remove(key, sharedContext);
+                }
+                sharedContext.built.completeExceptionally(e);
+                throw e;
+            }
+        } else {
+            LOGGER.debug("Reusing {} ComputeServiceContext", cloudProviderType.getHumanReadableName());
+            try {
+                sharedContext.built.join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+        }
+        return sharedContext.new Lease();
+    }
+
+    private void build(ContextBuilder contextBuilder) {
+        // the same as ContextBuilder.buildView(ComputeServiceContext.class), but reusing the injector
+        injector = contextBuilder.buildInjector();
+        final TypeToken<?> viewType = Apis.findView(contextBuilder.getApiMetadata(),
+                TypeToken.of(ComputeServiceContext.class));
+        context = (ComputeServiceContext) injector.getInstance(Key.get(TypeLiteral.get(viewType.getType())));
+        built.complete(this);
+    }
+
+    private void release() {
+        synchronized (CACHE) {
+            if (--references > 0) {
+                return;
+            }
+            if (key != null) {
+                CACHE.remove(key, this);
+            }
+        }
+        context.close();
+    }
+
+    /**
+     * A single use of the shared context by a cloud provider.
+     */
+    final class Lease implements AutoCloseable {
+        private boolean closed;
+
+        Injector getInjector() {
+            return injector;
+        }
+
+        ComputeServiceContext getContext() {
+            return context;
+        }
+
+        /**
+         * Releases the context; it's closed if it's not used by any other cloud provider.
+         */
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release();
+            }
+        }
+    }
+}
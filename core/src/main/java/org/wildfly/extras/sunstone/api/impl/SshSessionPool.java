@@ -0,0 +1,230 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.ssh.SshClient;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
+
+/**
+ * Keeps connected SSH sessions of a single node, so that {@link AbstractJCloudsNode#ssh()} (and so {@code exec} and
+ * {@link org.wildfly.extras.sunstone.api.process.ExecBuilder ExecBuilder}) and file copies don't connect and
+ * authenticate for each call. A session is borrowed for exclusive use and returned when the caller is done with it.
+ * Idle sessions are disconnected after {@link Config.Node.Shared#SSH_POOL_IDLE_TIMEOUT_SEC}; a session which was idle
+ * longer than {@link Config.Node.Shared#SSH_POOL_VALIDATE_AFTER_SEC} runs a no-op command before it's borrowed again, so
+ * that a connection dropped meanwhile is not handed out. At most {@link Config.Node.Shared#SSH_POOL_MAX_SESSIONS}
+ * sessions are borrowed at once, further borrowers wait.
+ */
+final class SshSessionPool {
+    private static final Logger LOGGER = SunstoneCoreLogger.SSH;
+
+    private final String nodeName;
+    private final long idleTimeoutNanos;
+    private final long validateAfterNanos;
+    private final Semaphore permits;
+    // most recently returned first, guarded by this
+    private final Deque<IdleSession> idleSessions = new ArrayDeque<>();
+    // guarded by this
+    private boolean closed;
+    private final AtomicLong connects = new AtomicLong();
+    private final AtomicLong reuses = new AtomicLong();
+
+    /**
+     * Opens a new connected session when there's no idle one.
+     */
+    @FunctionalInterface
+    interface Connector {
+        SshClient connect() throws OperationNotSupportedException, InterruptedException;
+    }
+
+    /**
+     * @param maxSessions maximum number of sessions borrowed at once, {@code 0} or less means unlimited
+     * @param idleTimeoutMillis how long returned sessions are kept, {@code 0} or less disables pooling
+     * @param validateAfterMillis idle time after which a session is checked before it's borrowed
+     */
+    SshSessionPool(String nodeName, int maxSessions, long idleTimeoutMillis, long validateAfterMillis) {
+        this.nodeName = nodeName;
+        this.idleTimeoutNanos = idleTimeoutMillis * 1_000_000L;
+        this.validateAfterNanos = validateAfterMillis * 1_000_000L;
+        this.permits = new Semaphore(maxSessions > 0 ? maxSessions : Integer.MAX_VALUE, true);
+    }
+
+    /**
+     * Returns an idle session which is still usable, or a new one from given connector. Has to be followed by
+     * {@link #release(SshClient)} or {@link #discard(SshClient)}.
+     *
+     * @throws IllegalStateException if the pool was closed
+     */
+    SshClient borrow(Connector connector) throws OperationNotSupportedException, InterruptedException {
+        permits.acquire();
+        boolean borrowed = false;
+        try {
+            IdleSession idle;
+            while ((idle = pollIdleSession()) != null) {
+                if (isUsable(idle)) {
+                    reuses.incrementAndGet();
+                    borrowed = true;
+                    return idle.session;
+                }
+                disconnect(idle.session);
+            }
+            synchronized (this) {
+                if (closed) {
+                    throw new IllegalStateException("SSH sessions of node '" + nodeName + "' were already closed");
+                }
+            }
+            final SshClient session = connector.connect();
+            connects.incrementAndGet();
+            LOGGER.debug("Opened new SSH session to node '{}'", nodeName);
+            borrowed = true;
+            return session;
+        } finally {
+            if (!borrowed) {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Returns a borrowed session to the pool, or disconnects it if it's not connected anymore, pooling is disabled or
+     * the pool was closed.
+     */
+    void release(SshClient session) {
+        try {
+            boolean pooled = false;
+            if (idleTimeoutNanos > 0 && isConnected(session)) {
+                synchronized (this) {
+                    if (!closed) {
+                        idleSessions.addFirst(new IdleSession(session, System.nanoTime()));
+                        pooled = true;
+                    }
+                }
+            }
+            if (!pooled) {
+                disconnect(session);
+            }
+            evictExpired();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Disconnects a borrowed session which may be broken, instead of returning it to the pool.
+     */
+    void discard(SshClient session) {
+        try {
+            disconnect(session);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Disconnects all idle sessions, e.g. because the node was stopped or restarted. Borrowed sessions are not affected.
+     */
+    void clear() {
+        final List<IdleSession> toDisconnect;
+        synchronized (this) {
+            toDisconnect = new ArrayList<>(idleSessions);
+            idleSessions.clear();
+        }
+        toDisconnect.forEach(idle -> disconnect(idle.session));
+    }
+
+    /**
+     * Disconnects all idle sessions. Sessions borrowed at the moment are disconnected when they're returned.
+     */
+    void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        clear();
+    }
+
+    /**
+     * Returns how many sessions were opened.
+     */
+    long getConnectCount() {
+        return connects.get();
+    }
+
+    /**
+     * Returns how many times an idle session was borrowed again.
+     */
+    long getReuseCount() {
+        return reuses.get();
+    }
+
+    private synchronized IdleSession pollIdleSession() {
+        return idleSessions.pollFirst();
+    }
+
+    private boolean isUsable(IdleSession idle) {
+        final long idleNanos = System.nanoTime() - idle.idleSinceNanos;
+        if (idleNanos >= idleTimeoutNanos || !isConnected(idle.session)) {
+            return false;
+        }
+        if (idleNanos < validateAfterNanos) {
+            return true;
+        }
+        try {
+            final ExecResponse response = idle.session.exec("true");
+            return response.getExitStatus() == 0;
+        } catch (RuntimeException e) {
+            LOGGER.debug("Idle SSH session to node '{}' is broken, it won't be reused", nodeName, e);
+            return false;
+        }
+    }
+
+    private void evictExpired() {
+        final List<IdleSession> expired = new ArrayList<>();
+        final long now = System.nanoTime();
+        synchronized (this) {
+            // the oldest sessions are at the end
+            final Iterator<IdleSession> it = idleSessions.descendingIterator();
+            while (it.hasNext()) {
+                final IdleSession idle = it.next();
+                if (now - idle.idleSinceNanos < idleTimeoutNanos) {
+                    break;
+                }
+                it.remove();
+                expired.add(idle);
+            }
+        }
+        expired.forEach(idle -> disconnect(idle.session));
+    }
+
+    private static boolean isConnected(SshClient session) {
+        try {
+            return session.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void disconnect(SshClient session) {
+        try {
+            session.disconnect();
+        } catch (RuntimeException e) {
+            LOGGER.trace("Failed to disconnect SSH session to node '{}'", nodeName, e);
+        }
+    }
+
+    private static final class IdleSession {
+        final SshClient session;
+        final long idleSinceNanos;
+
+        IdleSession(SshClient session, long idleSinceNanos) {
+            this.session = session;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+}
@@ -46,6 +46,13 @@ public class SshUtils {
         }
     }
 
+    /**
+     * Returns given value single-quoted for a POSIX shell.
+     */
+    static String shellQuote(String value) {
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
     public static ExecResult exec(SshClient sshClient, String... command) throws OperationNotSupportedException {
         // note that this is much better than ComputeService.runScriptOnNode, which uses a monstrous script
         // that embeds the 'command' and messes up with the exit code
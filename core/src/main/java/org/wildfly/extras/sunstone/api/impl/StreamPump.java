@@ -0,0 +1,54 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Copies an output of a running command (typically stderr, while the caller reads stdout) in the background. The copies
+ * run on shared daemon threads, at most {@link #MAX_THREADS} of them, which are reused by the following commands instead
+ * of starting a new thread for each command. If all of them are busy, the copy gets its own thread: it must not wait
+ * in a queue, as the command would block on the full output buffer until another command finishes.
+ */
+public final class StreamPump {
+    private static final int MAX_THREADS = 16;
+    private static final long KEEP_ALIVE_SEC = 60;
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(0, MAX_THREADS, KEEP_ALIVE_SEC,
+            TimeUnit.SECONDS, new SynchronousQueue<>(), StreamPump::newThread, (task, executor) -> newThread(task).start());
+
+    private StreamPump() {
+    }
+
+    /**
+     * Starts copying {@code in} to {@code out}. The input stream is closed when it's fully copied, the output stream is
+     * not closed. The returned future completes when the copy finishes, or exceptionally if it fails.
+     */
+    public static CompletableFuture<Void> start(InputStream in, OutputStream out) {
+        final CompletableFuture<Void> copied = new CompletableFuture<>();
+        EXECUTOR.execute(() -> {
+            try (InputStream is = in) {
+                ByteStreams.copy(is, out);
+                copied.complete(null);
+            } catch (IOException | RuntimeException e) {
+                copied.completeExceptionally(e);
+            }
+        });
+        return copied;
+    }
+
+    private static Thread newThread(Runnable runnable) {
+        final Thread thread = new Thread(runnable, "sunstone-stream-pump-" + THREAD_COUNTER.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
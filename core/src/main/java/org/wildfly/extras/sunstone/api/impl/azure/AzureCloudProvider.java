@@ -32,6 +32,7 @@ import com.google.common.collect.ImmutableSet;
 public final class AzureCloudProvider extends AbstractJCloudsCloudProvider {
     public AzureCloudProvider(String name, Map<String, String> overrides) throws NullPointerException {
         super(name, CloudProviderType.AZURE, overrides, AzureCloudProvider::createContextBuilder);
+        startNodePool();
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
@@ -105,7 +106,7 @@ public final class AzureCloudProvider extends AbstractJCloudsCloudProvider {
                 .stream()
                 .map(CloudService::name)
                 .collect(Collectors.toSet());
-        GroupNamingConvention.Factory namingConvention = guiceInjector.getInstance(GroupNamingConvention.Factory.class);
+        GroupNamingConvention.Factory namingConvention = getGuiceInjector().getInstance(GroupNamingConvention.Factory.class);
         for (int i = 0; i < 100; i++) {
             String name = namingConvention.createWithoutPrefix().uniqueNameForGroup(nodeGroup);
             if (!existingNames.contains(name)) {
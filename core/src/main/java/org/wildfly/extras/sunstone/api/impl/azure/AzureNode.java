@@ -15,6 +15,7 @@ import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.OsFamily;
 import org.jclouds.compute.domain.Template;
 import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsNode;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
@@ -66,12 +67,14 @@ public class AzureNode extends AbstractJCloudsNode<AzureCloudProvider> {
         final OsFamily osFamily = objectProperties.getPropertyAsBoolean(Config.Node.Azure.IMAGE_IS_WINDOWS, false)
                 ? OsFamily.WINDOWS
                 : OsFamily.LINUX;
+        final long templateStart = System.nanoTime();
         Template template = computeService.templateBuilder()
                 .imageId(image.getId())
                 .hardwareId(size)
                 .osFamily(osFamily)
                 .options(templateOptions)
                 .build();
+        provisioningPhaseFinished(ProvisioningPhase.TEMPLATE_BUILD, templateStart);
 
         LOGGER.debug("Creating {} node '{}' from template: {}",
                 cloudProvider.getCloudProviderType().getHumanReadableName(),
@@ -26,6 +26,7 @@ import com.google.common.collect.ImmutableSet;
 public class AzureArmCloudProvider extends AbstractJCloudsCloudProvider {
     public AzureArmCloudProvider(String name, Map<String, String> overrides) {
         super(name, CloudProviderType.AZURE_ARM, overrides, AzureArmCloudProvider::createContextBuilder);
+        startNodePool();
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
@@ -13,6 +13,7 @@ import org.jclouds.compute.domain.OsFamily;
 import org.jclouds.compute.domain.Template;
 import org.jclouds.compute.options.TemplateOptions;
 import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsNode;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
@@ -59,12 +60,14 @@ public class AzureArmNode extends AbstractJCloudsNode<AzureArmCloudProvider> {
         final OsFamily osFamily = objectProperties.getPropertyAsBoolean(Config.Node.AzureArm.IMAGE_IS_WINDOWS, false)
                 ? OsFamily.WINDOWS
                 : OsFamily.LINUX;
+        final long templateStart = System.nanoTime();
         Template template = computeService.templateBuilder()
                 .imageId(image.getId())
                 .hardwareId(size)
                 .osFamily(osFamily)
                 .options(templateOptions)
                 .build();
+        provisioningPhaseFinished(ProvisioningPhase.TEMPLATE_BUILD, templateStart);
 
         LOGGER.debug("Creating {} node from template: {}",
                 cloudProvider.getCloudProviderType().getHumanReadableName(), template);
@@ -27,6 +27,7 @@ import com.google.common.primitives.Booleans;
 public class BareMetalCloudProvider extends AbstractJCloudsCloudProvider {
     public BareMetalCloudProvider(String name, Map<String, String> overrides) {
         super(name, CloudProviderType.BARE_METAL, overrides, BareMetalCloudProvider::createContextBuilder);
+        startNodePool();
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
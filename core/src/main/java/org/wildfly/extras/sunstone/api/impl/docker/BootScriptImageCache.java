@@ -0,0 +1,100 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.google.common.io.Closeables;
+import org.jclouds.docker.domain.Image;
+import org.jclouds.docker.domain.ImageSummary;
+import org.jclouds.docker.features.ImageApi;
+import org.jclouds.docker.options.CommitOptions;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.Config;
+import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+/**
+ * Local Docker images of containers whose boot script already finished, see {@link Config.Node.Docker#BOOT_SCRIPT_CACHE}.
+ * The images are tagged {@code sunstone-bootscript-cache:<fingerprint>}, where the fingerprint is computed from the base
+ * image ID and the boot script content, so the Docker daemon itself is the cache storage and the cached images survive
+ * restarts of the JVM.
+ */
+final class BootScriptImageCache {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final String REPOSITORY = "sunstone-bootscript-cache";
+
+    private static final long DEFAULT_MAX_AGE_SEC = TimeUnit.DAYS.toSeconds(7);
+    private static final int DEFAULT_MAX_IMAGES = 20;
+
+    private BootScriptImageCache() {
+    }
+
+    /**
+     * Returns ID of the cached image with given fingerprint, or {@code null} if there's none.
+     */
+    static String lookup(DockerCloudProvider cloudProvider, String fingerprint) {
+        final String tag = REPOSITORY + ":" + fingerprint;
+        try {
+            for (ImageSummary image : cloudProvider.getIMageApi().listImages()) {
+                if (image.repoTags() != null && image.repoTags().contains(tag)) {
+                    return image.id();
+                }
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to look up cached boot script image {}", tag, e);
+        }
+        return null;
+    }
+
+    /**
+     * Commits given container as the cached image with given fingerprint and evicts old cached images. Failures are only
+     * logged, the cache is just an optimization.
+     */
+    static void store(DockerCloudProvider cloudProvider, String containerId, String fingerprint,
+            ObjectProperties objectProperties) {
+        try {
+            final Image image = cloudProvider.getContainerApi().commit(CommitOptions.Builder.containerId(containerId)
+                    .repository(REPOSITORY).tag(fingerprint).message("Sunstone boot script cache"));
+            LOGGER.debug("Cached boot script result of container {} as image {} ({}:{})", containerId, image.id(),
+                    REPOSITORY, fingerprint);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to cache boot script result of container {}", containerId, e);
+            return;
+        }
+        evict(cloudProvider.getIMageApi(),
+                objectProperties.getPropertyAsLong(Config.Node.Docker.BOOT_SCRIPT_CACHE_MAX_AGE_SEC, DEFAULT_MAX_AGE_SEC),
+                objectProperties.getPropertyAsInt(Config.Node.Docker.BOOT_SCRIPT_CACHE_MAX_IMAGES, DEFAULT_MAX_IMAGES));
+    }
+
+    /**
+     * Removes cached images older than {@code maxAgeSec} (unless it's {@code 0}) and the oldest cached images over
+     * {@code maxImages}. Images used by existing containers are kept by the Docker daemon.
+     */
+    private static void evict(ImageApi imageApi, long maxAgeSec, int maxImages) {
+        final long now = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+        final List<String> cachedTags = imageApi.listImages().stream()
+                .filter(image -> image.repoTags() != null)
+                .sorted(Comparator.comparingLong(ImageSummary::created).reversed())
+                .flatMap(image -> image.repoTags().stream()
+                        .filter(tag -> tag.startsWith(REPOSITORY + ":"))
+                        .map(tag -> maxAgeSec > 0 && now - image.created() > maxAgeSec ? "!" + tag : tag))
+                .collect(Collectors.toList());
+        for (int i = 0; i < cachedTags.size(); i++) {
+            final String tag = cachedTags.get(i);
+            final boolean expired = tag.startsWith("!");
+            if (expired || i >= maxImages) {
+                final String imageTag = expired ? tag.substring(1) : tag;
+                LOGGER.debug("Evicting cached boot script image {}", imageTag);
+                try {
+                    // the response only contains the list of deleted layers
+                    Closeables.closeQuietly(imageApi.deleteImage(imageTag));
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Failed to evict cached boot script image {}", imageTag, e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+import com.google.gson.Gson;
+
+/**
+ * Uploads local files and directories to a container by the Docker archive API ({@code PUT /containers/{id}/archive}).
+ * The tar archive is generated while it's sent as a chunked request body, so neither the archive nor the files are ever
+ * held in memory as a whole.
+ */
+final class ContainerArchiveUpload {
+    private static final Logger LOGGER = SunstoneCoreLogger.SSH;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // os.ModeDir of Go, in which the Docker daemon reports the mode
+    private static final long GO_MODE_DIR = 1L << 31;
+
+    private ContainerArchiveUpload() {
+    }
+
+    /**
+     * Copies given local path to given absolute path in the container with the same semantics as
+     * {@link org.wildfly.extras.sunstone.api.Node#copyFileToNode(Path, String)}: if the target is an existing directory,
+     * the source is copied into it, otherwise the target is the path of the copy (and its parent directory must exist).
+     * The copy is owned by given user and group IDs.
+     *
+     * @throws FileNotFoundException if the parent directory of the target doesn't exist
+     */
+    static void upload(DockerCloudProvider cloudProvider, String containerId, Path localSrc, String remoteTarget,
+            int uid, int gid) throws IOException {
+        final String target = remoteTarget.length() > 1 && remoteTarget.endsWith("/")
+                ? remoteTarget.substring(0, remoteTarget.length() - 1)
+                : remoteTarget;
+        final String directory;
+        final String entryName;
+        if (isDirectory(cloudProvider, containerId, target)) {
+            directory = target;
+            entryName = localSrc.getFileName().toString();
+        } else {
+            final int lastSlash = target.lastIndexOf('/');
+            directory = lastSlash == 0 ? "/" : target.substring(0, lastSlash);
+            entryName = target.substring(lastSlash + 1);
+        }
+        LOGGER.debug("Uploading '{}' to directory '{}' of container {} as '{}'", localSrc, directory, containerId,
+                entryName);
+
+        try (Socket socket = cloudProvider.openDaemonSocket()) {
+            final InputStream in = new BufferedInputStream(socket.getInputStream());
+            final Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", "application/x-tar");
+            headers.put("Transfer-Encoding", "chunked");
+            headers.put("Connection", "close");
+            final OutputStream socketOut = socket.getOutputStream();
+            DaemonHttp.writeRequestHead(socketOut, "PUT", archiveUri(cloudProvider, containerId, directory), headers);
+            final DaemonHttp.ChunkedOutputStream body = new DaemonHttp.ChunkedOutputStream(socketOut);
+            try {
+                final TarWriter tar = new TarWriter(new BufferedOutputStream(body, BUFFER_SIZE), uid, gid);
+                tar.write(localSrc, entryName);
+                tar.close();
+                body.close();
+            } catch (IOException e) {
+                // the body is left incomplete, so that the daemon doesn't extract a truncated archive; if the daemon
+                // rejected the request before reading the whole archive, its response explains why
+                final IOException rejection = readRejection(in, directory);
+                if (rejection == null) {
+                    throw e;
+                }
+                rejection.addSuppressed(e);
+                throw rejection;
+            }
+
+            final DaemonHttp.Response response = DaemonHttp.readResponseHead(in);
+            if (!response.isSuccessful()) {
+                throw failure(response, in, directory);
+            }
+        }
+    }
+
+    /**
+     * Returns {@code true} if given path is a directory in the container, by the stat of the archive API.
+     */
+    private static boolean isDirectory(DockerCloudProvider cloudProvider, String containerId, String path)
+            throws IOException {
+        try (Socket socket = cloudProvider.openDaemonSocket()) {
+            final Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Connection", "close");
+            DaemonHttp.writeRequestHead(socket.getOutputStream(), "HEAD", archiveUri(cloudProvider, containerId, path),
+                    headers);
+            socket.getOutputStream().flush();
+            final DaemonHttp.Response response = DaemonHttp
+                    .readResponseHead(new BufferedInputStream(socket.getInputStream()));
+            if (response.getStatus() == 404) {
+                return false;
+            }
+            if (!response.isSuccessful()) {
+                throw new IOException("Checking path '" + path + "' in Docker container " + containerId + " failed: "
+                        + response.getStatusLine());
+            }
+            final String stat = response.getHeader("X-Docker-Container-Path-Stat");
+            if (stat == null) {
+                return false;
+            }
+            final PathStat pathStat = new Gson().fromJson(
+                    new String(Base64.getDecoder().decode(stat), StandardCharsets.UTF_8), PathStat.class);
+            return pathStat != null && (pathStat.mode & GO_MODE_DIR) != 0;
+        }
+    }
+
+    private static IOException readRejection(InputStream in, String directory) {
+        try {
+            if (in.available() == 0) {
+                // nothing was sent by the daemon, it's still waiting for the rest of the archive
+                return null;
+            }
+            final DaemonHttp.Response response = DaemonHttp.readResponseHead(in);
+            return response.isSuccessful() ? null : failure(response, in, directory);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static IOException failure(DaemonHttp.Response response, InputStream in, String directory)
+            throws IOException {
+        final String message = "Uploading to directory '" + directory + "' failed: " + response.getStatusLine() + " "
+                + DaemonHttp.readErrorMessage(in);
+        return response.getStatus() == 404 ? new FileNotFoundException(message) : new IOException(message);
+    }
+
+    private static URI archiveUri(DockerCloudProvider cloudProvider, String containerId, String path) {
+        try {
+            return cloudProvider.getDaemonUri("/containers/" + containerId + "/archive?path="
+                    + URLEncoder.encode(path, StandardCharsets.UTF_8.name()));
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * JSON mapping object for the {@code X-Docker-Container-Path-Stat} header.
+     */
+    private static final class PathStat {
+        private long mode;
+    }
+}
@@ -0,0 +1,162 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Minimal HTTP/1.1 over a raw {@link DockerCloudProvider#openDaemonSocket() Docker daemon socket}, for the requests
+ * which the JClouds HTTP client can't do: streams taken over by the daemon and request bodies streamed while they are
+ * produced.
+ */
+final class DaemonHttp {
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 4096;
+
+    private DaemonHttp() {
+    }
+
+    /**
+     * Writes the request line and given headers (plus {@code Host}) to given stream.
+     */
+    static void writeRequestHead(OutputStream out, String method, URI uri, Map<String, String> headers)
+            throws IOException {
+        final StringBuilder head = new StringBuilder();
+        head.append(method).append(' ').append(uri.getRawPath());
+        if (uri.getRawQuery() != null) {
+            head.append('?').append(uri.getRawQuery());
+        }
+        head.append(" HTTP/1.1\r\n");
+        head.append("Host: ").append(uri.getHost()).append(uri.getPort() > 0 ? ":" + uri.getPort() : "").append("\r\n");
+        headers.forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+        head.append("\r\n");
+        out.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Reads the status line and headers of a response.
+     */
+    static Response readResponseHead(InputStream in) throws IOException {
+        final String statusLine = readLine(in);
+        final String[] statusParts = statusLine.split(" ", 3);
+        final int status = statusParts.length > 1 ? parseStatus(statusParts[1]) : -1;
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            final int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.put(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        return new Response(statusLine, status, headers);
+    }
+
+    /**
+     * Reads (the beginning of) the response body as a text for an error message. Meant for responses to requests
+     * with {@code Connection: close}, i.e. the body ends with the connection.
+     */
+    static String readErrorMessage(InputStream in) throws IOException {
+        final ByteArrayOutputStream message = new ByteArrayOutputStream();
+        int b;
+        while (message.size() < MAX_ERROR_MESSAGE_LENGTH && (b = in.read()) != -1) {
+            message.write(b);
+        }
+        return new String(message.toByteArray(), StandardCharsets.UTF_8).trim();
+    }
+
+    private static int parseStatus(String status) {
+        try {
+            return Integer.parseInt(status);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        final ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b == -1) {
+                throw new IOException("Docker daemon closed the connection before sending a complete response");
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return new String(line.toByteArray(), StandardCharsets.US_ASCII);
+    }
+
+    static final class Response {
+        private final String statusLine;
+        private final int status;
+        private final Map<String, String> headers;
+
+        Response(String statusLine, int status, Map<String, String> headers) {
+            this.statusLine = statusLine;
+            this.status = status;
+            this.headers = headers;
+        }
+
+        String getStatusLine() {
+            return statusLine;
+        }
+
+        int getStatus() {
+            return status;
+        }
+
+        boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        /** Returns value of given header (case insensitive) or {@code null}. */
+        String getHeader(String name) {
+            return headers.get(name);
+        }
+    }
+
+    /**
+     * Request body with {@code Transfer-Encoding: chunked}, each write is sent as one chunk (so it should be buffered).
+     * Closing the stream sends the last chunk, but doesn't close the underlying stream.
+     */
+    static final class ChunkedOutputStream extends FilterOutputStream {
+        private boolean finished;
+
+        ChunkedOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (finished) {
+                throw new IOException("Request body already finished");
+            }
+            if (len == 0) {
+                // an empty chunk would end the body
+                return;
+            }
+            out.write((Integer.toHexString(len) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.write(b, off, len);
+            out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!finished) {
+                finished = true;
+                out.write("0\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                out.flush();
+            }
+        }
+    }
+}
@@ -1,8 +1,18 @@
 package org.wildfly.extras.sunstone.api.impl.docker;
 
+import java.io.File;
+import java.io.IOException;
+import java.net.Socket;
+import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import javax.net.SocketFactory;
+import javax.net.ssl.SSLSocketFactory;
 
 import org.jclouds.ContextBuilder;
 import org.jclouds.docker.DockerApi;
@@ -11,12 +21,17 @@ import org.jclouds.docker.compute.functions.LoginPortForContainer;
 import org.jclouds.docker.features.ContainerApi;
 import org.jclouds.docker.features.ImageApi;
 import org.jclouds.docker.features.MiscApi;
+import org.jclouds.docker.features.NetworkApi;
+import org.jclouds.docker.options.RemoveContainerOptions;
+import org.jclouds.docker.suppliers.DockerSSLContextSupplier;
 import org.jclouds.logging.slf4j.config.SLF4JLoggingModule;
+import org.wildfly.extras.sunstone.api.CloudProperties;
 import org.wildfly.extras.sunstone.api.CloudProviderType;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsCloudProvider;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.DynamicSshClientModule;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
+import org.wildfly.extras.sunstone.api.impl.ObjectType;
 import org.wildfly.extras.sunstone.api.impl.SocketFinderOnlyPublicInterfacesModule;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsNode;
 
@@ -31,8 +46,63 @@ import com.google.inject.Scopes;
  *
  */
 public final class DockerCloudProvider extends AbstractJCloudsCloudProvider {
+    private static final String DEFAULT_API_VERSION = "1.21";
+
+    private final Object eventStreamLock = new Object();
+    // created when the first node is registered, guarded by eventStreamLock
+    private DockerEventStream eventStream;
+    private boolean eventStreamClosed;
+
+    private final ImagePuller imagePuller = new ImagePuller(this::getIMageApi);
+
+    private final Object nodeNetworkLock = new Object();
+    // created when the first node needs it, guarded by nodeNetworkLock
+    private NodeNetwork nodeNetwork;
+    private boolean nodeNetworkRemoved;
+
     public DockerCloudProvider(String providerName, Map<String, String> overrideMap) {
         super(providerName, CloudProviderType.DOCKER, overrideMap, DockerCloudProvider::createContextBuilder);
+        // idle pooled containers would share the network alias of the leased node with the same name
+        if (hasNodeNetwork() && !Strings.isNullOrEmpty(objectProperties.getProperty(Config.POOL_NODES, ""))) {
+            close();
+            throw new IllegalArgumentException("Cloud provider '" + providerName + "': " + Config.POOL_NODES
+                    + " can't be used together with " + Config.CloudProvider.Docker.NETWORK);
+        }
+        if (objectProperties.getPropertyAsBoolean(Config.CloudProvider.Docker.PREFETCH_IMAGES, false)) {
+            prefetchImages();
+        }
+        startNodePool();
+    }
+
+    /**
+     * Starts pulling images of the configured nodes (see {@link Config.CloudProvider.Docker#PREFETCH_IMAGES_NODES})
+     * in the background.
+     */
+    private void prefetchImages() {
+        final String nodesString = objectProperties.getProperty(Config.CloudProvider.Docker.PREFETCH_IMAGES_NODES, "");
+        final Set<String> nodeNames = new LinkedHashSet<>();
+        Pattern.compile(",").splitAsStream(nodesString).map(String::trim).filter(s -> !Strings.isNullOrEmpty(s))
+                .forEach(nodeNames::add);
+        if (nodeNames.isEmpty()) {
+            // all nodes in the configuration
+            final String nodePrefix = ObjectType.NODE.getPropertyPrefix() + ".";
+            CloudProperties.getInstance().getConfigMap().keySet().stream()
+                    .filter(key -> key.startsWith(nodePrefix) && key.indexOf('.', nodePrefix.length()) > 0)
+                    .map(key -> key.substring(nodePrefix.length(), key.indexOf('.', nodePrefix.length())))
+                    .sorted()
+                    .forEach(nodeNames::add);
+        }
+
+        for (String nodeName : nodeNames) {
+            final ObjectProperties nodeProperties = new ObjectProperties(ObjectType.NODE, nodeName);
+            final String imageName = nodeProperties.getProperty(Config.Node.Docker.IMAGE);
+            if (Strings.isNullOrEmpty(imageName)) {
+                continue;
+            }
+            final String pullPolicy = nodeProperties.getProperty(Config.Node.Docker.IMAGE_PULL_POLICY);
+            imagePuller.prefetch(imageName, Strings.isNullOrEmpty(pullPolicy) ? ImagePuller.PullPolicy.defaultFor(imageName)
+                    : ImagePuller.PullPolicy.fromLabel(pullPolicy), getCreationExecutor());
+        }
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
@@ -51,7 +121,7 @@ public final class DockerCloudProvider extends AbstractJCloudsCloudProvider {
                 .credentials(
                         objectProperties.getProperty(Config.CloudProvider.Docker.TLS_CERT_PATH, Config.CloudProvider.Docker.TLS_CERT_PATH),
                         objectProperties.getProperty(Config.CloudProvider.Docker.TLS_KEY_PATH, Config.CloudProvider.Docker.TLS_KEY_PATH))
-                .apiVersion(objectProperties.getProperty(Config.CloudProvider.Docker.API_VERSION, "1.21"))
+                .apiVersion(objectProperties.getProperty(Config.CloudProvider.Docker.API_VERSION, DEFAULT_API_VERSION))
                 .modules(ImmutableSet.of(customLookupModule, new SLF4JLoggingModule(), new DynamicSshClientModule(), new SocketFinderOnlyPublicInterfacesModule()));
         final String caCertPath = objectProperties.getProperty(Config.CloudProvider.Docker.TLS_CA_CERT_PATH);
         if (!Strings.isNullOrEmpty(caCertPath)) {
@@ -68,6 +138,144 @@ public final class DockerCloudProvider extends AbstractJCloudsCloudProvider {
         return new DockerNode(this, name, overrides);
     }
 
+    /**
+     * Removes the container by a single forced removal, instead of stopping it first and then polling until it's gone.
+     */
+    @Override
+    protected void destroyCloudNode(JCloudsNode node) {
+        final String containerId = node.getInitialNodeMetadata().getId();
+        final DockerEventStream events = getEventStream();
+        if (events != null) {
+            events.unregister(containerId);
+        }
+        getContainerApi().removeContainer(containerId, RemoveContainerOptions.Builder.force(true));
+    }
+
+    /**
+     * Closes the Docker events stream and removes the {@link Config.CloudProvider.Docker#NETWORK node network} (unless
+     * the nodes are left running).
+     */
+    @Override
+    protected void releaseResources() {
+        synchronized (eventStreamLock) {
+            eventStreamClosed = true;
+            if (eventStream != null) {
+                eventStream.close();
+            }
+        }
+        final NodeNetwork network;
+        synchronized (nodeNetworkLock) {
+            nodeNetworkRemoved = true;
+            network = nodeNetwork;
+        }
+        if (network != null && nodeRequiresDestroy()) {
+            network.remove();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the nodes of this cloud provider are connected to a dedicated network, see
+     * {@link Config.CloudProvider.Docker#NETWORK}.
+     */
+    boolean hasNodeNetwork() {
+        return objectProperties.getPropertyAsBoolean(Config.CloudProvider.Docker.NETWORK, false);
+    }
+
+    /**
+     * Returns the dedicated network of the nodes of this cloud provider, which is created on the first call.
+     *
+     * @throws IllegalStateException if the cloud provider was closed already
+     */
+    NodeNetwork getNodeNetwork() {
+        synchronized (nodeNetworkLock) {
+            if (nodeNetworkRemoved) {
+                throw new IllegalStateException("Cloud provider '" + getName() + "' was closed");
+            }
+            if (nodeNetwork == null) {
+                nodeNetwork = NodeNetwork.create(this);
+            }
+            return nodeNetwork;
+        }
+    }
+
+    /**
+     * Returns the name of the dedicated network of the nodes of this cloud provider, or {@code null} if it wasn't
+     * created.
+     */
+    String getNodeNetworkName() {
+        synchronized (nodeNetworkLock) {
+            return nodeNetwork != null ? nodeNetwork.getName() : null;
+        }
+    }
+
+    /**
+     * Registers the container of given node to receive its state changes from the Docker events stream, which is
+     * opened when the first container is registered (unless disabled by {@link Config.CloudProvider.Docker#EVENTS}).
+     */
+    void registerContainer(String containerId, DockerNode node) {
+        if (!objectProperties.getPropertyAsBoolean(Config.CloudProvider.Docker.EVENTS, true)) {
+            return;
+        }
+        synchronized (eventStreamLock) {
+            if (eventStreamClosed) {
+                return;
+            }
+            if (eventStream == null) {
+                eventStream = new DockerEventStream(this);
+            }
+            eventStream.register(containerId, node);
+        }
+    }
+
+    /**
+     * Returns the Docker events stream, or {@code null} if it wasn't opened.
+     */
+    DockerEventStream getEventStream() {
+        synchronized (eventStreamLock) {
+            return eventStream;
+        }
+    }
+
+    ImagePuller getImagePuller() {
+        return imagePuller;
+    }
+
+    /**
+     * Returns counters of Docker image pulls done for the nodes of this cloud provider.
+     */
+    public ImagePullStatistics getImagePullStatistics() {
+        return imagePuller.getStatistics();
+    }
+
+    /**
+     * Returns the URI of given Docker Remote API path (e.g. {@code /containers/json}), including the API version.
+     */
+    URI getDaemonUri(String apiPath) {
+        return URI.create(objectProperties.getProperty(Config.CloudProvider.Docker.ENDPOINT).replaceAll("/+$", "") + "/v"
+                + objectProperties.getProperty(Config.CloudProvider.Docker.API_VERSION, DEFAULT_API_VERSION) + apiPath);
+    }
+
+    /**
+     * Opens a socket to the Docker daemon (a TLS socket for {@code https} endpoints), for requests which take over
+     * the HTTP connection (e.g. exec with stdin attached). The JClouds HTTP client doesn't support these.
+     */
+    Socket openDaemonSocket() throws IOException {
+        final URI endpoint = URI.create(objectProperties.getProperty(Config.CloudProvider.Docker.ENDPOINT));
+        final boolean tls = "https".equalsIgnoreCase(endpoint.getScheme());
+        final int port = endpoint.getPort() > 0 ? endpoint.getPort() : (tls ? 443 : 80);
+        if (!tls) {
+            return new Socket(endpoint.getHost(), port);
+        }
+        final String certPath = objectProperties.getProperty(Config.CloudProvider.Docker.TLS_CERT_PATH);
+        final String keyPath = objectProperties.getProperty(Config.CloudProvider.Docker.TLS_KEY_PATH);
+        // the same as the JClouds HTTP client, client certificates are only used when both files exist
+        final SocketFactory socketFactory = certPath != null && keyPath != null && new File(certPath).isFile()
+                && new File(keyPath).isFile()
+                        ? getGuiceInjector().getInstance(DockerSSLContextSupplier.class).get().getSocketFactory()
+                        : SSLSocketFactory.getDefault();
+        return socketFactory.createSocket(endpoint.getHost(), port);
+    }
+
     /**
      * Returns JClouds Docker {@link ContainerApi} instance.
      */
@@ -82,6 +290,13 @@ public final class DockerCloudProvider extends AbstractJCloudsCloudProvider {
         return getComputeServiceContext().unwrapApi(DockerApi.class).getImageApi();
     }
 
+    /**
+     * Returns JClouds Docker {@link NetworkApi} instance.
+     */
+    NetworkApi getNetworkApi() {
+        return getComputeServiceContext().unwrapApi(DockerApi.class).getNetworkApi();
+    }
+
     /**
      * Returns JClouds Docker {@link MiscApi} instance.
      */
@@ -0,0 +1,298 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.jclouds.docker.domain.ExecInspect;
+import org.jclouds.docker.util.DockerInputStream;
+import org.jclouds.docker.util.StdStreamData;
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.BoundedPipe;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+import org.wildfly.extras.sunstone.api.ssh.CommandExecution;
+
+import com.google.gson.Gson;
+
+/**
+ * A command running in a Docker container via Docker exec, with stdin, stdout and stderr attached. The output is
+ * demultiplexed from the Docker stream frames as they arrive into {@link BoundedPipe bounded buffers}, so it should be
+ * read while the command runs (a command whose output isn't read blocks once the buffer is full).
+ * <p>
+ * The JClouds Docker API can't attach stdin, so the exec is created by a plain HTTP request and started on a socket
+ * which the Docker daemon takes over for the raw stream (the same as {@code docker exec -i} does).
+ */
+final class DockerCommandExecution implements CommandExecution {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+    private static final long EXIT_CODE_POLL_MILLIS = 20;
+
+    private final DockerCloudProvider cloudProvider;
+    private final String execId;
+    private final Socket socket;
+    private final OutputStream stdin;
+    private final BoundedPipe stdout = new BoundedPipe();
+    private final BoundedPipe stderr = new BoundedPipe();
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private volatile Integer exitCode;
+    private volatile boolean closed;
+
+    private DockerCommandExecution(DockerCloudProvider cloudProvider, String execId, Socket socket, InputStream rawStream,
+            String nodeName) throws IOException {
+        this.cloudProvider = cloudProvider;
+        this.execId = execId;
+        this.socket = socket;
+        this.stdin = new Stdin(socket.getOutputStream());
+        final Thread demultiplexer = new Thread(() -> demultiplex(rawStream), "sunstone-docker-exec-" + nodeName);
+        demultiplexer.setDaemon(true);
+        demultiplexer.start();
+    }
+
+    /**
+     * Starts given command in given container.
+     */
+    static DockerCommandExecution start(DockerCloudProvider cloudProvider, String containerId, String nodeName,
+            List<String> command) throws IOException {
+        return start(cloudProvider, containerId, nodeName, null, true, command);
+    }
+
+    /**
+     * Starts given command in given container as given user ({@code null} for the user of the container). If stdin is
+     * not attached, the command gets end of input immediately and data written to {@link #stdin()} are ignored.
+     */
+    static DockerCommandExecution start(DockerCloudProvider cloudProvider, String containerId, String nodeName,
+            String user, boolean attachStdin, List<String> command) throws IOException {
+        final Map<String, Object> createParams = new LinkedHashMap<>();
+        createParams.put("AttachStdin", attachStdin);
+        createParams.put("AttachStdout", true);
+        createParams.put("AttachStderr", true);
+        createParams.put("Tty", false);
+        if (user != null) {
+            createParams.put("User", user);
+        }
+        createParams.put("Cmd", command);
+        final String execId = createExec(cloudProvider, containerId, new Gson().toJson(createParams));
+        LOGGER.debug("Starting Docker exec {} of command {} on node '{}'", execId, command, nodeName);
+
+        final Socket socket = cloudProvider.openDaemonSocket();
+        try {
+            final URI startUri = cloudProvider.getDaemonUri("/exec/" + execId + "/start");
+            final byte[] body = "{\"Detach\":false,\"Tty\":false}".getBytes(StandardCharsets.UTF_8);
+            final Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", "application/json");
+            headers.put("Content-Length", String.valueOf(body.length));
+            headers.put("Connection", "Upgrade");
+            headers.put("Upgrade", "tcp");
+            final OutputStream out = socket.getOutputStream();
+            DaemonHttp.writeRequestHead(out, "POST", startUri, headers);
+            out.write(body);
+            out.flush();
+
+            final InputStream in = new BufferedInputStream(socket.getInputStream());
+            readResponseHead(in);
+            return new DockerCommandExecution(cloudProvider, execId, socket, in, nodeName);
+        } catch (IOException | RuntimeException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static String createExec(DockerCloudProvider cloudProvider, String containerId, String json)
+            throws IOException {
+        final Payload payload = Payloads.newStringPayload(json);
+        payload.getContentMetadata().setContentType("application/json");
+        final HttpResponse response = cloudProvider.getComputeServiceContext().utils().http()
+                .invoke(HttpRequest.builder().method("POST")
+                        .endpoint(cloudProvider.getDaemonUri("/containers/" + containerId + "/exec")).payload(payload)
+                        .build());
+        if (response.getPayload() == null) {
+            throw new IOException("Creating Docker exec returned no content: " + response.getStatusLine());
+        }
+        try (InputStreamReader reader = new InputStreamReader(response.getPayload().openStream(),
+                StandardCharsets.UTF_8)) {
+            final ExecCreated created = new Gson().fromJson(reader, ExecCreated.class);
+            if (created == null || created.Id == null) {
+                throw new IOException("Creating Docker exec didn't return its ID: " + response.getStatusLine());
+            }
+            return created.Id;
+        }
+    }
+
+    /**
+     * Reads the status line and headers of the response which starts the raw stream.
+     */
+    private static void readResponseHead(InputStream in) throws IOException {
+        final DaemonHttp.Response response = DaemonHttp.readResponseHead(in);
+        if (response.getStatus() != 101 && response.getStatus() != 200) {
+            throw new IOException("Starting Docker exec failed: " + response.getStatusLine() + " "
+                    + DaemonHttp.readErrorMessage(in));
+        }
+    }
+
+    private void demultiplex(InputStream rawStream) {
+        final OutputStream out = stdout.sink();
+        final OutputStream err = stderr.sink();
+        IOException failure = null;
+        try (DockerInputStream dis = new DockerInputStream(rawStream)) {
+            StdStreamData data;
+            while (null != (data = dis.readStdStreamData())) {
+                switch (data.getType()) {
+                    case OUT:
+                        out.write(data.getPayload());
+                        break;
+                    case ERR:
+                        err.write(data.getPayload());
+                        break;
+                    default:
+                        LOGGER.error("Unexpected STD stream type: {}", data.getType());
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                LOGGER.debug("Reading output of Docker exec {} failed", execId, e);
+                failure = e;
+            }
+        } finally {
+            if (failure != null) {
+                stdout.fail(failure);
+                stderr.fail(failure);
+            } else {
+                stdout.closeSink();
+                stderr.closeSink();
+            }
+            finished.countDown();
+        }
+    }
+
+    @Override
+    public OutputStream stdin() {
+        return stdin;
+    }
+
+    @Override
+    public InputStream stdout() {
+        return stdout.source();
+    }
+
+    @Override
+    public InputStream stderr() {
+        return stderr.source();
+    }
+
+    @Override
+    public void await() throws InterruptedException {
+        finished.await();
+        while (!inspectExitCode().isPresent()) {
+            Thread.sleep(EXIT_CODE_POLL_MILLIS);
+        }
+    }
+
+    @Override
+    public void await(long timeout, TimeUnit timeoutUnit) throws InterruptedException, TimeoutException {
+        final long deadline = System.nanoTime() + timeoutUnit.toNanos(timeout);
+        if (!finished.await(timeout, timeoutUnit)) {
+            throw new TimeoutException();
+        }
+        while (!inspectExitCode().isPresent()) {
+            final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Docker exec " + execId + " is still reported as running");
+            }
+            Thread.sleep(Math.min(EXIT_CODE_POLL_MILLIS, remainingMillis));
+        }
+    }
+
+    @Override
+    public OptionalInt exitCode() {
+        if (finished.getCount() > 0) {
+            return OptionalInt.empty();
+        }
+        return inspectExitCode();
+    }
+
+    /**
+     * Returns the exit code from Docker exec inspect, or empty if the exec is still running. The output stream ends when
+     * the process exits, but the Docker daemon can still report the exec as running (with exit code 0) for a short while.
+     */
+    private OptionalInt inspectExitCode() {
+        Integer result = exitCode;
+        if (result == null) {
+            final ExecInspect inspect = cloudProvider.getMiscApi().execInspect(execId);
+            if (inspect.running()) {
+                return OptionalInt.empty();
+            }
+            result = inspect.exitCode();
+            exitCode = result;
+        }
+        return OptionalInt.of(result);
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        stdout.source().close();
+        stderr.source().close();
+        socket.close();
+    }
+
+    /**
+     * Closing stdin only closes the sending direction of the connection, so that the command gets end of input but its
+     * output can still be read. TLS sockets can't do that, so closing stdin there has no effect.
+     */
+    private final class Stdin extends OutputStream {
+        private final OutputStream delegate;
+
+        Stdin(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+            try {
+                socket.shutdownOutput();
+            } catch (UnsupportedOperationException e) {
+                LOGGER.debug("Stdin of Docker exec {} can't be closed on a TLS connection", execId);
+            }
+        }
+    }
+
+    /**
+     * JSON mapping object for the response of exec create.
+     */
+    private static final class ExecCreated {
+        @SuppressWarnings("checkstyle:MemberName")
+        private String Id;
+    }
+}
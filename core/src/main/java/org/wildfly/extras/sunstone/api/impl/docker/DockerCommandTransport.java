@@ -0,0 +1,63 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.wildfly.extras.sunstone.api.ExecResult;
+import org.wildfly.extras.sunstone.api.impl.DefaultExecResult;
+import org.wildfly.extras.sunstone.api.impl.StreamPump;
+import org.wildfly.extras.sunstone.api.process.CommandTransport;
+
+import com.google.common.io.CharStreams;
+
+/**
+ * Executes commands rendered by {@link org.wildfly.extras.sunstone.api.process.ExecBuilder ExecBuilder} by Docker exec
+ * instead of SSH. To keep the results the same as over SSH, the command runs as the configured SSH user (if any),
+ * in its home directory, and without any input.
+ */
+final class DockerCommandTransport implements CommandTransport {
+    private final DockerCloudProvider cloudProvider;
+    private final String containerId;
+    private final String nodeName;
+    private final String user;
+
+    DockerCommandTransport(DockerCloudProvider cloudProvider, String containerId, String nodeName, String user) {
+        this.cloudProvider = cloudProvider;
+        this.containerId = containerId;
+        this.nodeName = nodeName;
+        this.user = user;
+    }
+
+    @Override
+    public ExecResult execAndWait(String command) throws IOException, InterruptedException {
+        // SSH sessions start in the home directory of the user
+        final String shellCommand = user != null ? "cd ~ 2>/dev/null; " + command : command;
+        try (DockerCommandExecution execution = DockerCommandExecution.start(cloudProvider, containerId, nodeName, user,
+                false, Arrays.asList("sh", "-c", shellCommand))) {
+            // both outputs have to be read concurrently, the command blocks when either of the buffers is full
+            final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+            final CompletableFuture<Void> stderrCopied = StreamPump.start(execution.stderr(), stderr);
+
+            final String stdout = readFully(execution.stdout());
+            stderrCopied.get();
+            execution.await();
+            return new DefaultExecResult(stdout, new String(stderr.toByteArray(), StandardCharsets.UTF_8),
+                    execution.exitCode().orElse(-1));
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    private static String readFully(InputStream stream) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+            return CharStreams.toString(reader);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * A single long-lived subscription to the Docker {@code /events} stream of one cloud provider. Container state changes
+ * are dispatched to the {@link DockerNode} which owns the container, so that the nodes can answer state queries without
+ * inspecting the container. See {@link org.wildfly.extras.sunstone.api.impl.Config.CloudProvider.Docker#EVENTS}.
+ * <p>
+ * The stream is read by a single daemon thread. If it breaks (e.g. on the HTTP read timeout when there are no events
+ * for a long time), the state of all nodes becomes unknown and the subscription is renewed, replaying the events since
+ * the last received one.
+ */
+final class DockerEventStream implements AutoCloseable {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final long RECONNECT_DELAY_MS = 1000;
+
+    // the Docker daemon only filters by container IDs given at subscription time, so the containers are filtered here
+    private static final String FILTERS = "{\"event\":[\"start\",\"restart\",\"die\",\"oom\",\"destroy\",\"health_status\"]}";
+
+    private final DockerCloudProvider cloudProvider;
+    private final String eventsUri;
+    private final ConcurrentMap<String, DockerNode> nodes = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private volatile boolean connected;
+    private volatile boolean closed;
+    private volatile InputStream stream;
+    // time (in seconds, as reported by the Docker daemon) of the last received event, only accessed by the thread
+    private long lastEventTime;
+
+    DockerEventStream(DockerCloudProvider cloudProvider) {
+        this.cloudProvider = cloudProvider;
+        try {
+            this.eventsUri = cloudProvider
+                    .getDaemonUri("/events?filters=" + URLEncoder.encode(FILTERS, StandardCharsets.UTF_8.name())).toString();
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        this.thread = new Thread(this::run, "sunstone-" + cloudProvider.getName() + "-docker-events");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    void register(String containerId, DockerNode node) {
+        nodes.put(containerId, node);
+    }
+
+    void unregister(String containerId) {
+        nodes.remove(containerId);
+    }
+
+    /**
+     * Returns {@code true} if the subscription is currently active, i.e. the state of registered nodes reported by
+     * the events can be trusted.
+     */
+    boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        while (!closed) {
+            try {
+                subscribe();
+            } catch (IOException | RuntimeException e) {
+                if (!closed) {
+                    LOGGER.debug("Docker events stream of cloud provider '{}' broke, renewing it", cloudProvider.getName(), e);
+                }
+            } finally {
+                connected = false;
+                nodes.values().forEach(DockerNode::containerStateUnknown);
+            }
+            if (!closed) {
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void subscribe() throws IOException {
+        final String uri = lastEventTime > 0 ? eventsUri + "&since=" + lastEventTime : eventsUri;
+        final HttpResponse response = cloudProvider.getComputeServiceContext().utils().http()
+                .invoke(HttpRequest.builder().method("GET").endpoint(URI.create(uri)).build());
+        if (response.getPayload() == null) {
+            throw new IOException("Docker events stream returned no content: " + response.getStatusLine());
+        }
+        try (InputStream is = response.getPayload().openStream()) {
+            stream = is;
+            if (closed) {
+                return;
+            }
+            connected = true;
+            LOGGER.debug("Subscribed to Docker events of cloud provider '{}'", cloudProvider.getName());
+            final Gson gson = new Gson();
+            final JsonReader reader = new JsonReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+            reader.setLenient(true);
+            while (!closed && reader.peek() == JsonToken.BEGIN_OBJECT) {
+                final Event event = gson.fromJson(reader, Event.class);
+                if (event == null || event.id == null || event.status == null) {
+                    continue;
+                }
+                lastEventTime = Math.max(lastEventTime, event.time);
+                final DockerNode node = nodes.get(event.id);
+                if (node != null) {
+                    LOGGER.trace("Docker event '{}' for node '{}'", event.status, node.getName());
+                    node.containerEvent(event.status);
+                }
+            }
+        } finally {
+            stream = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        final InputStream current = stream;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                LOGGER.trace("Closing Docker events stream failed", e);
+            }
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * JSON mapping object for the Docker events.
+     */
+    private static final class Event {
+        private String status;
+        private String id;
+        private long time;
+    }
+}
@@ -4,17 +4,20 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
@@ -26,7 +29,6 @@ import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
 import org.jclouds.compute.RunNodesException;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
-import org.jclouds.docker.DockerApi;
 import org.jclouds.docker.compute.options.DockerTemplateOptions;
 import org.jclouds.docker.domain.Container;
 import org.jclouds.docker.domain.Exec;
@@ -35,9 +37,8 @@ import org.jclouds.docker.domain.ExecInspect;
 import org.jclouds.docker.domain.ExecStartParams;
 import org.jclouds.docker.domain.HostConfig;
 import org.jclouds.docker.domain.Resource;
-import org.jclouds.docker.features.ImageApi;
+import org.jclouds.docker.domain.State;
 import org.jclouds.docker.features.MiscApi;
-import org.jclouds.docker.options.CreateImageOptions;
 import org.jclouds.docker.util.DockerInputStream;
 import org.jclouds.docker.util.StdStreamData;
 import org.jclouds.domain.LoginCredentials;
@@ -46,12 +47,15 @@ import org.wildfly.extras.sunstone.api.ExecResult;
 import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
 import org.wildfly.extras.sunstone.api.PortOpeningException;
 import org.wildfly.extras.sunstone.api.PortOpeningTimeoutException;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsNode;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.DefaultExecResult;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
 import org.wildfly.extras.sunstone.api.impl.SshUtils;
 import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+import org.wildfly.extras.sunstone.api.process.CommandTransport;
+import org.wildfly.extras.sunstone.api.ssh.CommandExecution;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
@@ -59,9 +63,6 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
-import com.google.gson.Gson;
-import com.google.gson.stream.JsonReader;
-import com.google.gson.stream.JsonToken;
 
 /**
  * Docker implementation of {@link org.wildfly.extras.sunstone.api.Node}. This implementation uses JClouds internally.
@@ -74,6 +75,18 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
     private final String imageName;
     private final NodeMetadata initialNodeMetadata;
     private final DockerTemplateOptions templateOptions;
+    private final String bootScriptCacheKey;
+    private volatile PortMappings portMappings;
+    // the user which uploaded files are owned by, resolved on the first upload
+    private volatile UploadOwner uploadOwner;
+
+    // container state reported by the Docker events stream (see DockerEventStream), guarded by containerStateLock
+    private final Object containerStateLock = new Object();
+    private Boolean running;
+    private String healthStatus;
+    // incremented on each state change, so that a state read by inspecting the container isn't recorded when an event
+    // came meanwhile
+    private long containerStateVersion;
 
     public DockerNode(DockerCloudProvider dockerCloudProvider, String name, Map<String, String> configOverrides) {
         super(dockerCloudProvider, name, configOverrides);
@@ -84,49 +97,42 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
                     + dockerCloudProvider.getName());
         }
 
-        final CreateImageOptions options = CreateImageOptions.Builder.fromImage(imageName);
-
-        final ImageApi imageApi = computeServiceContext.unwrapApi(DockerApi.class).getImageApi();
-        try (final InputStreamReader isr = new InputStreamReader(imageApi.createImage(options), "UTF-8")) {
-            if (LOGGER.isDebugEnabled()) {
-                Gson gson = new Gson();
-                JsonReader reader = new JsonReader(isr);
-                try {
-                    reader.setLenient(true);
-                    while (reader.peek() == JsonToken.BEGIN_OBJECT) {
-                        ProgressMessage message = gson.fromJson(reader, ProgressMessage.class);
-                        if (message != null) {
-                            LOGGER.debug("Docker daemon | {}", message);
-                        }
-                    }
-                } catch (Exception e) {
-                    LOGGER.debug("Parsing JSON responses from Docker image create/pull failed.", e);
-                }
-            }
-            char[] tmpBuff = new char[8 * 1024];
-            // throw everything away
-            while (isr.read(tmpBuff) > -1) {
-                // just continue
+        long start = System.nanoTime();
+        final String pullPolicy = objectProperties.getProperty(Config.Node.Docker.IMAGE_PULL_POLICY);
+        final org.jclouds.docker.domain.Image image = dockerCloudProvider.getImagePuller().resolve(imageName,
+                Strings.isNullOrEmpty(pullPolicy) ? ImagePuller.PullPolicy.defaultFor(imageName)
+                        : ImagePuller.PullPolicy.fromLabel(pullPolicy));
+        LOGGER.debug("Image {} has id {}", imageName, image.id());
+        String imageId = image.id();
+        String cacheKey = null;
+        if (hasBootScript() && objectProperties.getPropertyAsBoolean(Config.Node.Docker.BOOT_SCRIPT_CACHE, false)) {
+            cacheKey = bootScriptFingerprint(image.id());
+            final String cachedImageId = BootScriptImageCache.lookup(dockerCloudProvider, cacheKey);
+            if (cachedImageId != null) {
+                LOGGER.debug("Using image {} with cached boot script result for node {}", cachedImageId, name);
+                imageId = cachedImageId;
+                cacheKey = null;
+                markBootScriptBaked();
             }
-        } catch (IOException e) {
-            throw new RuntimeException("Unable to create/pull Docker image", e);
         }
-        LOGGER.debug("Inspecting image {}", imageName);
-        org.jclouds.docker.domain.Image image = imageApi.inspectImage(imageName);
-        if (image == null) {
-            throw new RuntimeException(
-                    "Image '" + imageName + "' was not found. Check if pulling it from registry finished correctly.");
-        }
-        LOGGER.debug("Image {} has id {}", imageName, image.id());
-        templateOptions = buildTemplateOptions(objectProperties);
+        this.bootScriptCacheKey = cacheKey;
+        provisioningPhaseFinished(ProvisioningPhase.IMAGE_RESOLUTION, start);
+
+        start = System.nanoTime();
+        final String networkMode = objectProperties.getProperty(Config.Node.Docker.NETWORK_MODE,
+                dockerCloudProvider.hasNodeNetwork() ? "bridge" : "host");
+        templateOptions = buildTemplateOptions(objectProperties, networkMode);
 
         LOGGER.debug("Creating JClouds Template with options: {}", templateOptions);
-        final Template template = computeService.templateBuilder().imageId(image.id()).options(templateOptions).build();
+        final Template template = computeService.templateBuilder().imageId(imageId).options(templateOptions).build();
+        provisioningPhaseFinished(ProvisioningPhase.TEMPLATE_BUILD, start);
 
         LOGGER.debug("Creating {} node from template: {}", cloudProvider.getCloudProviderType().getHumanReadableName(),
                 template);
         try {
             this.initialNodeMetadata = createNode(template);
+            dockerCloudProvider.registerContainer(initialNodeMetadata.getId(), this);
+            connectToNodeNetwork(dockerCloudProvider, networkMode);
             String publicAddress = Iterables.getFirst(initialNodeMetadata.getPublicAddresses(), null);
             LOGGER.info("Started {} node '{}' from image {}, its public IP address is {}",
                     cloudProvider.getCloudProviderType().getHumanReadableName(), name, imageName, publicAddress);
@@ -136,11 +142,34 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         }
     }
 
-    private static DockerTemplateOptions buildTemplateOptions(ObjectProperties objectProperties) {
+    /**
+     * Connects the new container to the {@link Config.CloudProvider.Docker#NETWORK node network} of the cloud provider
+     * (if enabled), with the node name as its alias. Containers which don't have their own network stack are skipped. If
+     * the connection fails, the container is removed right away, as the node is not registered to the cloud provider yet.
+     */
+    private void connectToNodeNetwork(DockerCloudProvider dockerCloudProvider, String networkMode) {
+        if (!dockerCloudProvider.hasNodeNetwork() || "host".equals(networkMode) || "none".equals(networkMode)
+                || networkMode.startsWith("container:")) {
+            return;
+        }
+        try {
+            dockerCloudProvider.getNodeNetwork().connect(initialNodeMetadata.getId(), getName());
+        } catch (RuntimeException e) {
+            try {
+                dockerCloudProvider.destroyCloudNode(this);
+            } catch (RuntimeException e2) {
+                e.addSuppressed(e2);
+            }
+            throw e;
+        }
+        containerChanged();
+    }
+
+    private static DockerTemplateOptions buildTemplateOptions(ObjectProperties objectProperties, String networkMode) {
         org.jclouds.docker.domain.Config.Builder confBuilder = org.jclouds.docker.domain.Config.builder();
         HostConfig.Builder hostConfBuilder = HostConfig.builder().publishAllPorts(true);
         DockerTemplateOptions templateOptions = new DockerTemplateOptions();
-        hostConfBuilder.networkMode(objectProperties.getProperty(Config.Node.Docker.NETWORK_MODE, "host"));
+        hostConfBuilder.networkMode(networkMode);
 
         final Map<String, List<Map<String, String>>> portBindingsConf = Maps.newHashMap();
         final String portBindings = objectProperties.getProperty(Config.Node.Docker.PORT_BINDINGS);
@@ -277,6 +306,13 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         return initialNodeMetadata;
     }
 
+    @Override
+    protected void bootScriptFinished(ExecResult result) {
+        if (bootScriptCacheKey != null && result.getExitCode() == 0) {
+            BootScriptImageCache.store(cloudProvider, initialNodeMetadata.getId(), bootScriptCacheKey, objectProperties);
+        }
+    }
+
     @Override
     public NodeMetadata getFreshNodeMetadata() {
         return computeService.getNodeMetadata(initialNodeMetadata.getId());
@@ -297,33 +333,12 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         if (tcpPort < 0) {
             return tcpPort;
         }
-        final HostConfig hostConfig = getContainer().hostConfig();
-        if ("host".equals(hostConfig.networkMode())) {
-            return tcpPort;
-        } else {
-            final String portName = tcpPort + "/tcp";
-            int result = -1;
-            final Map<String, List<Map<String, String>>> ports = hostConfig.portBindings();
-            if (ports != null) {
-                final List<Map<String, String>> portList = ports.get(portName);
-                if (portList != null && !portList.isEmpty()) {
-                    final String hostPortStr = portList.get(0).get("HostPort");
-                    try {
-                        result = Integer.parseInt(hostPortStr);
-                    } catch (NumberFormatException e) {
-                        LOGGER.debug(
-                                "Unable to parse public port number for internal port {} (value found was {}) on node '{}'",
-                                tcpPort, hostPortStr, getName());
-                    }
-                } else {
-                    LOGGER.debug("Unable to find TCP port mapping for port {} on node '{}'", tcpPort, getName());
-                }
-            } else {
-                LOGGER.debug("Port mapping is active, but no port mapping was found on node '{}'", getName());
-            }
-            LOGGER.debug("TCP port mapping: {} -> {} on node '{}'", tcpPort, result, getName());
-            return result;
+        final int result = getPortMappings().getPublicTcpPort(tcpPort);
+        if (result == -1) {
+            LOGGER.debug("Unable to find TCP port mapping for port {} on node '{}'", tcpPort, getName());
         }
+        LOGGER.trace("TCP port mapping: {} -> {} on node '{}'", tcpPort, result, getName());
+        return result;
     }
 
     @Override
@@ -337,12 +352,11 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         if (isSocketAddrOpen(inetAddr)) {
             // if we are not in host network mode and the tested interface is a loopback, then there is a problem with
             // "false-open" ports. Let's check it also on internal address.
-            final Container container = getContainer();
-            final HostConfig hostConfig = container.hostConfig();
-            if (!"host".equals(hostConfig.networkMode())) {
+            final PortMappings portMappings = getPortMappings();
+            if (!portMappings.isHostNetwork()) {
                 final InetAddress address = inetAddr.getAddress();
                 if (address != null && address.isLoopbackAddress()) {
-                    InetSocketAddress inetSockAddr2 = new InetSocketAddress(container.networkSettings().ipAddress(), portNr);
+                    InetSocketAddress inetSockAddr2 = new InetSocketAddress(portMappings.getContainerIpAddress(), portNr);
                     if (!isSocketAddrOpen(inetSockAddr2)) {
                         LOGGER.debug("Port {} is open on public interface, but not on private one ({}) on node '{}'",
                                 publicPortNr, inetSockAddr2, getName());
@@ -362,7 +376,115 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
      */
     @Override
     public boolean isRunning() throws OperationNotSupportedException {
-        return getContainer().state().running();
+        final DockerEventStream events = cloudProvider.getEventStream();
+        if (events == null || !events.isConnected()) {
+            return getContainer().state().running();
+        }
+        final long version;
+        synchronized (containerStateLock) {
+            if (running != null) {
+                return running;
+            }
+            version = containerStateVersion;
+        }
+        final boolean inspectedRunning = getContainer().state().running();
+        synchronized (containerStateLock) {
+            if (containerStateVersion == version && events.isConnected()) {
+                running = inspectedRunning;
+            }
+        }
+        return inspectedRunning;
+    }
+
+    /**
+     * Returns the last health status of the container (e.g. {@code healthy} or {@code unhealthy}) reported by the Docker
+     * events stream, or {@code null} if it's not known (e.g. the image has no health check, or the events stream is
+     * disabled).
+     */
+    public String getHealthStatus() {
+        synchronized (containerStateLock) {
+            return healthStatus;
+        }
+    }
+
+    /**
+     * Called by {@link DockerEventStream} when the container state changed.
+     */
+    void containerEvent(String status) {
+        if (status.startsWith("health_status:")) {
+            synchronized (containerStateLock) {
+                healthStatus = status.substring("health_status:".length()).trim();
+            }
+            return;
+        }
+        switch (status) {
+            case "start":
+            case "restart":
+                setRunning(true);
+                containerChanged();
+                break;
+            case "die":
+            case "destroy":
+                setRunning(false);
+                containerChanged();
+                break;
+            case "oom":
+                LOGGER.warn("Container of node '{}' ran out of memory", getName());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Called by {@link DockerEventStream} when events might have been missed.
+     */
+    void containerStateUnknown() {
+        synchronized (containerStateLock) {
+            running = null;
+            healthStatus = null;
+            containerStateVersion++;
+        }
+    }
+
+    private void setRunning(boolean value) {
+        synchronized (containerStateLock) {
+            running = value;
+            if (!value) {
+                healthStatus = null;
+            }
+            containerStateVersion++;
+        }
+    }
+
+    /**
+     * Returns a transport which executes {@link org.wildfly.extras.sunstone.api.process.ExecBuilder ExecBuilder} commands
+     * by Docker exec (as the configured SSH user), unless the {@link Config.Node.Docker#COMMAND_TRANSPORT} property is
+     * {@code ssh}.
+     */
+    @Override
+    public CommandTransport commandTransport() {
+        final String transport = objectProperties.getProperty(Config.Node.Docker.COMMAND_TRANSPORT, "docker");
+        switch (transport.trim().toLowerCase(Locale.ENGLISH)) {
+            case "docker":
+                final String user = objectProperties.getProperty(Config.Node.Docker.SSH_USER);
+                return new DockerCommandTransport(cloudProvider, initialNodeMetadata.getId(), getName(),
+                        Strings.emptyToNull(user));
+            case "ssh":
+                return super.commandTransport();
+            default:
+                throw new IllegalArgumentException("Unsupported command transport '" + transport + "' of node '" + getName()
+                        + "', expected one of 'docker', 'ssh'");
+        }
+    }
+
+    /**
+     * Starts given command using Docker exec with stdin, stdout and stderr attached and returns immediately. Unlike
+     * {@link #exec(String...)}, the output isn't collected in memory, it has to be read from the returned
+     * {@link CommandExecution} while the command runs. Callers are responsible for closing the {@code CommandExecution}.
+     */
+    public CommandExecution startExec(String... command) throws IOException {
+        return DockerCommandExecution.start(cloudProvider, initialNodeMetadata.getId(), getName(), Arrays.asList(command));
     }
 
     /**
@@ -411,6 +533,9 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         final String id = initialNodeMetadata.getId();
         LOGGER.debug("Stopping container {} (ID {})", getName(), id);
         cloudProvider.getContainerApi().stopContainer(id);
+        containerChanged();
+        // the event may not be received yet
+        containerStateUnknown();
         LOGGER.info("Stopped {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
     }
 
@@ -426,6 +551,9 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         final String id = initialNodeMetadata.getId();
         LOGGER.debug("Starting container {} (ID {})", getName(), id);
         cloudProvider.getContainerApi().startContainer(id);
+        containerChanged();
+        // the event may not be received yet
+        containerStateUnknown();
         LOGGER.info("Started {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
     }
 
@@ -440,9 +568,138 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         final String id = initialNodeMetadata.getId();
         LOGGER.debug("Killing container {} (ID {})", getName(), id);
         cloudProvider.getContainerApi().kill(id);
+        containerChanged();
+        // the event may not be received yet
+        containerStateUnknown();
         LOGGER.info("Killed {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
     }
 
+    /**
+     * Uses Docker pause to freeze all processes of the container by the cgroup freezer. Their memory state is kept and
+     * the node is still reported as running.
+     *
+     * @see org.wildfly.extras.sunstone.api.Node#freeze()
+     */
+    @Override
+    public void freeze() {
+        LOGGER.info("Freezing {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
+        final String id = initialNodeMetadata.getId();
+        LOGGER.debug("Pausing container {} (ID {})", getName(), id);
+        cloudProvider.getContainerApi().pause(id);
+        LOGGER.info("Frozen {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
+    }
+
+    /**
+     * Uses Docker unpause to resume the container frozen by {@link #freeze()}.
+     *
+     * @see org.wildfly.extras.sunstone.api.Node#thaw()
+     */
+    @Override
+    public void thaw() {
+        LOGGER.info("Thawing {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
+        final String id = initialNodeMetadata.getId();
+        LOGGER.debug("Unpausing container {} (ID {})", getName(), id);
+        cloudProvider.getContainerApi().unpause(id);
+        LOGGER.info("Thawed {} node '{}'", cloudProvider.getCloudProviderType().getHumanReadableName(), getName());
+    }
+
+    /**
+     * Thaws the container if it was {@link #freeze() frozen} by the previous lessee and checks that it's still running.
+     */
+    @Override
+    protected boolean prepareForPool() {
+        final State state = getContainer().state();
+        if (state.paused()) {
+            thaw();
+            return getContainer().state().running();
+        }
+        return state.running();
+    }
+
+    /**
+     * Copies a file or a directory (recursively, including file modes and symbolic links) from local path to the node by
+     * the Docker archive API, so SSH is not needed. If {@code remoteTarget} is an existing directory, {@code localSrc} is
+     * copied into it. The copy is owned by the configured SSH user (or the user of the container, if there's none) and
+     * a relative {@code remoteTarget} is resolved against its home directory, which is also the default destination
+     * when {@code remoteTarget} is null; the same as when copying over SSH and running commands by
+     * {@link #commandTransport()}.
+     *
+     * @param localSrc a path to a file or directory on the local machine that is to be copied
+     * @param remoteTarget a path on the target machine where the file is to be copied to
+     * @throws NullPointerException if {@code localSrc} is null ({@code remoteTarget} has a default)
+     * @throws FileNotFoundException if {@code localSrc} or the parent directory of {@code remoteTarget} does not exist
+     */
+    @Override
+    public void copyFileToNode(Path localSrc, String remoteTarget)
+            throws OperationNotSupportedException, IllegalArgumentException, NullPointerException, IOException {
+        if (localSrc == null) {
+            throw new NullPointerException("Local path to copy file from can't be null.");
+        }
+        if (!Files.exists(localSrc, LinkOption.NOFOLLOW_LINKS)) {
+            throw new FileNotFoundException("Local path to copy file from doesn't exist: " + localSrc);
+        }
+        final UploadOwner owner = uploadOwner();
+        String target = remoteTarget;
+        if (Strings.isNullOrEmpty(target) || !target.startsWith("/")) {
+            target = Strings.isNullOrEmpty(target) ? owner.home
+                    : (owner.home.endsWith("/") ? owner.home : owner.home + "/") + target;
+        }
+
+        SunstoneCoreLogger.SSH.debug("Copying local path '{}' to remote target '{}' on node '{}'", localSrc, target,
+                getName());
+        ContainerArchiveUpload.upload(cloudProvider, initialNodeMetadata.getId(), localSrc, target, owner.uid,
+                owner.gid);
+        SunstoneCoreLogger.SSH.debug("Copied local path '{}' to remote target '{}' on node '{}'", localSrc, target,
+                getName());
+    }
+
+    /**
+     * Returns the user and group IDs and the home directory of the user which runs commands by the Docker
+     * {@link #commandTransport() command transport}. If they can't be found out (e.g. there's no shell in the
+     * container), the copies are owned by root and relative paths are resolved against the container working directory.
+     */
+    private UploadOwner uploadOwner() throws IOException {
+        UploadOwner result = uploadOwner;
+        if (result == null) {
+            final String user = Strings.emptyToNull(objectProperties.getProperty(Config.Node.Docker.SSH_USER));
+            try {
+                final ExecResult ids = new DockerCommandTransport(cloudProvider, initialNodeMetadata.getId(), getName(),
+                        user).execAndWait("id -u && id -g && pwd");
+                final List<String> lines = Splitter.on('\n').trimResults().omitEmptyStrings().splitToList(ids.getOutput());
+                if (ids.getExitCode() == 0 && lines.size() == 3) {
+                    result = new UploadOwner(Integer.parseInt(lines.get(0)), Integer.parseInt(lines.get(1)), lines.get(2));
+                }
+            } catch (NumberFormatException | IOException e) {
+                LOGGER.debug("Finding out the user of node '{}' failed", getName(), e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while finding out the user of node '" + getName() + "'");
+            }
+            if (result == null) {
+                final String workingDir = getContainer().config().workingDir();
+                LOGGER.warn("Unable to find out the user of node '{}', copied files will be owned by root", getName());
+                result = new UploadOwner(0, 0, Strings.isNullOrEmpty(workingDir) ? "/" : workingDir);
+            }
+            uploadOwner = result;
+        }
+        return result;
+    }
+
+    /**
+     * Owner of the files copied to the node.
+     */
+    private static final class UploadOwner {
+        private final int uid;
+        private final int gid;
+        private final String home;
+
+        private UploadOwner(int uid, int gid, String home) {
+            this.uid = uid;
+            this.gid = gid;
+            this.home = home;
+        }
+    }
+
     @Override
     public void copyFileFromNode(String remoteSrc, Path localTarget)
             throws OperationNotSupportedException, IllegalArgumentException, NullPointerException, FileNotFoundException {
@@ -535,6 +792,44 @@ public class DockerNode extends AbstractJCloudsNode<DockerCloudProvider> {
         return cloudProvider.getContainerApi().inspectContainer(initialNodeMetadata.getId());
     }
 
+    /**
+     * Returns the address of the container on the {@link Config.CloudProvider.Docker#NETWORK node network}, if it's
+     * connected to it. Otherwise falls back to the address reported by JClouds.
+     */
+    @Override
+    public String getPrivateAddress() {
+        final String networkName = cloudProvider.getNodeNetworkName();
+        if (networkName != null) {
+            final String address = getPortMappings().getNetworkAddress(networkName);
+            if (!Strings.isNullOrEmpty(address)) {
+                return address;
+            }
+        }
+        return super.getPrivateAddress();
+    }
+
+    /**
+     * Returns the snapshot of port mappings of this node's container, inspecting the container only if there's none.
+     */
+    private PortMappings getPortMappings() {
+        PortMappings result = portMappings;
+        if (result == null) {
+            result = PortMappings.of(getContainer());
+            LOGGER.debug("Port mappings of node '{}': {}", getName(), result);
+            portMappings = result;
+        }
+        return result;
+    }
+
+    /**
+     * Drops cached information about the container (port mappings and node metadata), because the container was
+     * started, stopped or otherwise changed.
+     */
+    void containerChanged() {
+        portMappings = null;
+        invalidateNodeMetadata();
+    }
+
     /**
      * Checks if given socket address is open.
      */
@@ -0,0 +1,54 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+/**
+ * Snapshot of Docker image pull counters of a cloud provider. Just a DTO.
+ *
+ * @see DockerCloudProvider#getImagePullStatistics()
+ */
+public final class ImagePullStatistics {
+
+    private final long pulls;
+    private final long joinedPulls;
+    private final long skippedPulls;
+    private final long pullNanos;
+    private final long pulledBytes;
+
+    public ImagePullStatistics(long pulls, long joinedPulls, long skippedPulls, long pullNanos, long pulledBytes) {
+        this.pulls = pulls;
+        this.joinedPulls = joinedPulls;
+        this.skippedPulls = skippedPulls;
+        this.pullNanos = pullNanos;
+        this.pulledBytes = pulledBytes;
+    }
+
+    /** Number of image pulls performed. */
+    public long getPulls() {
+        return pulls;
+    }
+
+    /** Number of nodes which waited for a pull of the same image started for another node instead of pulling it again. */
+    public long getJoinedPulls() {
+        return joinedPulls;
+    }
+
+    /** Number of nodes which didn't pull the image, because it was present and the pull policy allowed using it. */
+    public long getSkippedPulls() {
+        return skippedPulls;
+    }
+
+    /** Total time spent pulling images, in nanoseconds. */
+    public long getPullNanos() {
+        return pullNanos;
+    }
+
+    /** Total number of bytes downloaded by the pulls, as reported by the Docker daemon. */
+    public long getPulledBytes() {
+        return pulledBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "ImagePullStatistics [pulls=" + pulls + ", joinedPulls=" + joinedPulls + ", skippedPulls=" + skippedPulls
+                + ", pullNanos=" + pullNanos + ", pulledBytes=" + pulledBytes + "]";
+    }
+}
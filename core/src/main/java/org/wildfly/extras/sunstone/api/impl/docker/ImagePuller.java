@@ -0,0 +1,223 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.jclouds.docker.domain.Image;
+import org.jclouds.docker.features.ImageApi;
+import org.jclouds.docker.options.CreateImageOptions;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Pulls Docker images for the nodes of one cloud provider. Concurrent pulls of the same image are deduplicated, so e.g.
+ * {@link org.wildfly.extras.sunstone.api.CloudProvider#createNodes(String...) createNodes} starting ten nodes from one
+ * image pulls it only once, and the image isn't pulled at all if the {@link PullPolicy} allows using a local image.
+ */
+final class ImagePuller {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    enum PullPolicy {
+        /** The image is always pulled, so that a changed image in the registry is used. */
+        ALWAYS,
+        /** The image is only pulled if it's not present in the Docker daemon. */
+        IF_NOT_PRESENT,
+        /** The image is never pulled, it must be present in the Docker daemon. */
+        NEVER;
+
+        static PullPolicy fromLabel(String label) {
+            switch (label.trim().toLowerCase(Locale.ENGLISH)) {
+                case "always":
+                    return ALWAYS;
+                case "ifnotpresent":
+                    return IF_NOT_PRESENT;
+                case "never":
+                    return NEVER;
+                default:
+                    throw new IllegalArgumentException("Unsupported image pull policy '" + label
+                            + "', expected one of 'always', 'ifNotPresent', 'never'");
+            }
+        }
+
+        /**
+         * The default policy: images with the {@code latest} tag (or without a tag) are always pulled, other images
+         * only if they are not present.
+         */
+        static PullPolicy defaultFor(String imageName) {
+            final String lastPart = imageName.substring(imageName.lastIndexOf('/') + 1);
+            if (lastPart.contains("@")) {
+                // referenced by digest, can't change
+                return IF_NOT_PRESENT;
+            }
+            final int tagSeparator = lastPart.lastIndexOf(':');
+            return tagSeparator < 0 || "latest".equals(lastPart.substring(tagSeparator + 1)) ? ALWAYS : IF_NOT_PRESENT;
+        }
+    }
+
+    private final Supplier<ImageApi> imageApi;
+    private final ConcurrentMap<String, CompletableFuture<Void>> runningPulls = new ConcurrentHashMap<>();
+    // completed with true if the image was prefetched successfully
+    private final ConcurrentMap<String, CompletableFuture<Boolean>> prefetches = new ConcurrentHashMap<>();
+
+    private final AtomicLong pulls = new AtomicLong();
+    private final AtomicLong joinedPulls = new AtomicLong();
+    private final AtomicLong skippedPulls = new AtomicLong();
+    private final AtomicLong pullNanos = new AtomicLong();
+    private final AtomicLong pulledBytes = new AtomicLong();
+
+    ImagePuller(Supplier<ImageApi> imageApi) {
+        this.imageApi = imageApi;
+    }
+
+    /**
+     * Makes sure the image is present in the Docker daemon according to given pull policy and returns it.
+     *
+     * @throws IllegalStateException if the image is not present after the pull (or if it's not present and the policy
+     *         is {@link PullPolicy#NEVER})
+     */
+    Image resolve(String imageName, PullPolicy policy) {
+        final CompletableFuture<Boolean> prefetch = prefetches.get(imageName);
+        if (prefetch != null && prefetch.join() && policy == PullPolicy.ALWAYS) {
+            LOGGER.debug("Image {} was prefetched, not pulling it again", imageName);
+            policy = PullPolicy.IF_NOT_PRESENT;
+        }
+        return doResolve(imageName, policy);
+    }
+
+    /**
+     * Starts resolving given image in the background, see {@link #resolve(String, PullPolicy)}. Nodes started from the
+     * image later wait for the prefetch to finish, if it's still running, and then don't pull the image again.
+     */
+    void prefetch(String imageName, PullPolicy policy, Executor executor) {
+        final CompletableFuture<Boolean> prefetch = new CompletableFuture<>();
+        if (prefetches.putIfAbsent(imageName, prefetch) != null) {
+            return;
+        }
+        LOGGER.debug("Prefetching image {} (pull policy {})", imageName, policy);
+        try {
+            executor.execute(() -> {
+                try {
+                    doResolve(imageName, policy);
+                    prefetch.complete(true);
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Prefetching image {} failed, it will be pulled again when a node needs it", imageName, e);
+                    prefetch.complete(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Prefetching image {} was rejected", imageName, e);
+            prefetch.complete(false);
+        }
+    }
+
+    private Image doResolve(String imageName, PullPolicy policy) {
+        if (policy != PullPolicy.ALWAYS) {
+            final Image image = imageApi.get().inspectImage(imageName);
+            if (image != null) {
+                LOGGER.debug("Image {} is present, not pulling it (pull policy {})", imageName, policy);
+                skippedPulls.incrementAndGet();
+                return image;
+            }
+            if (policy == PullPolicy.NEVER) {
+                throw new IllegalStateException("Image '" + imageName + "' is not present and the pull policy is 'never'");
+            }
+        }
+
+        pull(imageName);
+
+        LOGGER.debug("Inspecting image {}", imageName);
+        final Image image = imageApi.get().inspectImage(imageName);
+        if (image == null) {
+            throw new IllegalStateException(
+                    "Image '" + imageName + "' was not found. Check if pulling it from registry finished correctly.");
+        }
+        return image;
+    }
+
+    private void pull(String imageName) {
+        final CompletableFuture<Void> ownPull = new CompletableFuture<>();
+        final CompletableFuture<Void> runningPull = runningPulls.putIfAbsent(imageName, ownPull);
+        if (runningPull != null) {
+            LOGGER.debug("Image {} is already being pulled, waiting for it", imageName);
+            joinedPulls.incrementAndGet();
+            try {
+                runningPull.join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof RuntimeException ? (RuntimeException) cause : e;
+            }
+            return;
+        }
+
+        try {
+            doPull(imageName);
+            ownPull.complete(null);
+        } catch (RuntimeException e) {
+            ownPull.completeExceptionally(e);
+            throw e;
+        } finally {
+            runningPulls.remove(imageName, ownPull);
+        }
+    }
+
+    private void doPull(String imageName) {
+        final long start = System.nanoTime();
+        // bytes processed so far by layer; the progress messages report the total for the layer, not increments
+        final Map<String, Long> layerBytes = new HashMap<>();
+        try (InputStreamReader isr = new InputStreamReader(
+                imageApi.get().createImage(CreateImageOptions.Builder.fromImage(imageName)), StandardCharsets.UTF_8)) {
+            final Gson gson = new Gson();
+            final JsonReader reader = new JsonReader(isr);
+            try {
+                reader.setLenient(true);
+                while (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                    ProgressMessage message = gson.fromJson(reader, ProgressMessage.class);
+                    if (message != null) {
+                        LOGGER.debug("Docker daemon | {}", message);
+                        if ("Downloading".equals(message.getStatus()) && message.getId() != null) {
+                            layerBytes.merge(message.getId(), message.getCurrentBytes(), Math::max);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                LOGGER.debug("Parsing JSON responses from Docker image create/pull failed.", e);
+            }
+            char[] tmpBuff = new char[8 * 1024];
+            // throw everything away
+            while (isr.read(tmpBuff) > -1) {
+                // just continue
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create/pull Docker image", e);
+        }
+        final long duration = System.nanoTime() - start;
+        final long bytes = layerBytes.values().stream().mapToLong(Long::longValue).sum();
+        pulls.incrementAndGet();
+        pullNanos.addAndGet(duration);
+        pulledBytes.addAndGet(bytes);
+        LOGGER.info("Pulled image {} in {} ms, downloaded {} bytes", imageName, TimeUnit.NANOSECONDS.toMillis(duration),
+                bytes);
+    }
+
+    ImagePullStatistics getStatistics() {
+        return new ImagePullStatistics(pulls.get(), joinedPulls.get(), skippedPulls.get(), pullNanos.get(),
+                pulledBytes.get());
+    }
+}
@@ -0,0 +1,121 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jclouds.http.HttpRequest;
+import org.jclouds.http.HttpResponse;
+import org.jclouds.io.Payload;
+import org.jclouds.io.Payloads;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+import com.google.gson.Gson;
+
+/**
+ * A user-defined bridge network dedicated to the nodes of one cloud provider (see
+ * {@link org.wildfly.extras.sunstone.api.impl.Config.CloudProvider.Docker#NETWORK}). Containers on it talk to each other
+ * directly instead of through ports published on the Docker host, and reach each other by node names, which are
+ * registered as DNS aliases in the network.
+ */
+final class NodeNetwork {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final String LABEL_CLOUD_PROVIDER = "sunstone.cloudProvider";
+
+    private final DockerCloudProvider cloudProvider;
+    private final String name;
+    private final String id;
+
+    private NodeNetwork(DockerCloudProvider cloudProvider, String name, String id) {
+        this.cloudProvider = cloudProvider;
+        this.name = name;
+        this.id = id;
+    }
+
+    /**
+     * Creates a new network with a unique name derived from the cloud provider name.
+     */
+    static NodeNetwork create(DockerCloudProvider cloudProvider) {
+        final String name = "sunstone-" + cloudProvider.getName().replaceAll("[^a-zA-Z0-9_.-]", "-") + "-"
+                + UUID.randomUUID().toString().substring(0, 8);
+        final Map<String, Object> params = new LinkedHashMap<>();
+        params.put("Name", name);
+        params.put("Driver", "bridge");
+        params.put("CheckDuplicate", true);
+        params.put("Labels", Collections.singletonMap(LABEL_CLOUD_PROVIDER, cloudProvider.getName()));
+        final NetworkCreated created;
+        try {
+            created = post(cloudProvider, "/networks/create", params, NetworkCreated.class);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to create Docker network " + name, e);
+        }
+        if (created == null || created.Id == null) {
+            throw new IllegalStateException("Creating Docker network " + name + " didn't return its ID");
+        }
+        LOGGER.info("Created Docker network {} for nodes of cloud provider '{}'", name, cloudProvider.getName());
+        return new NodeNetwork(cloudProvider, name, created.Id);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Connects given container to this network, so that other containers on it can reach it by given alias.
+     */
+    void connect(String containerId, String alias) {
+        final Map<String, Object> params = new LinkedHashMap<>();
+        params.put("Container", containerId);
+        params.put("EndpointConfig", Collections.singletonMap("Aliases", Collections.singletonList(alias)));
+        try {
+            post(cloudProvider, "/networks/" + id + "/connect", params, null);
+        } catch (IOException e) {
+            throw new RuntimeException("Unable to connect container " + containerId + " to Docker network " + name, e);
+        }
+        LOGGER.debug("Connected container {} to Docker network {} as '{}'", containerId, name, alias);
+    }
+
+    /**
+     * Removes this network. All containers have to be removed or disconnected.
+     */
+    void remove() {
+        cloudProvider.getNetworkApi().removeNetwork(id);
+        LOGGER.info("Removed Docker network {}", name);
+    }
+
+    private static <T> T post(DockerCloudProvider cloudProvider, String apiPath, Map<String, Object> params,
+            Class<T> responseType) throws IOException {
+        final Payload payload = Payloads.newStringPayload(new Gson().toJson(params));
+        payload.getContentMetadata().setContentType("application/json");
+        final HttpResponse response = cloudProvider.getComputeServiceContext().utils().http()
+                .invoke(HttpRequest.builder().method("POST").endpoint(cloudProvider.getDaemonUri(apiPath))
+                        .payload(payload).build());
+        if (responseType == null) {
+            if (response.getPayload() != null) {
+                response.getPayload().release();
+            }
+            return null;
+        }
+        if (response.getPayload() == null) {
+            throw new IOException("Docker daemon returned no content: " + response.getStatusLine());
+        }
+        try (InputStreamReader reader = new InputStreamReader(response.getPayload().openStream(),
+                StandardCharsets.UTF_8)) {
+            return new Gson().fromJson(reader, responseType);
+        }
+    }
+
+    /**
+     * JSON mapping object for the response of network create.
+     */
+    private static final class NetworkCreated {
+        @SuppressWarnings("checkstyle:MemberName")
+        private String Id;
+    }
+}
@@ -0,0 +1,100 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jclouds.docker.domain.Container;
+import org.jclouds.docker.domain.HostConfig;
+import org.jclouds.docker.domain.NetworkSettings;
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Immutable snapshot of the port bindings and network settings of a Docker container, so that port lookups don't have to
+ * inspect the container each time. The snapshot is taken by {@link DockerNode} and dropped when the container is started,
+ * stopped or otherwise changed.
+ */
+final class PortMappings {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private final boolean hostNetwork;
+    private final Map<Integer, Integer> publicTcpPorts;
+    private final String containerIpAddress;
+    private final Map<String, String> networkAddresses;
+
+    private PortMappings(boolean hostNetwork, Map<Integer, Integer> publicTcpPorts, String containerIpAddress,
+            Map<String, String> networkAddresses) {
+        this.hostNetwork = hostNetwork;
+        this.publicTcpPorts = publicTcpPorts;
+        this.containerIpAddress = containerIpAddress;
+        this.networkAddresses = networkAddresses;
+    }
+
+    static PortMappings of(Container container) {
+        final HostConfig hostConfig = container.hostConfig();
+        final boolean hostNetwork = "host".equals(hostConfig.networkMode());
+        final ImmutableMap.Builder<Integer, Integer> publicTcpPorts = ImmutableMap.builder();
+        final Map<String, List<Map<String, String>>> ports = hostConfig.portBindings();
+        if (!hostNetwork && ports != null) {
+            for (Map.Entry<String, List<Map<String, String>>> binding : ports.entrySet()) {
+                if (!binding.getKey().endsWith("/tcp") || binding.getValue() == null || binding.getValue().isEmpty()) {
+                    continue;
+                }
+                final String internalPortStr = binding.getKey().substring(0, binding.getKey().length() - "/tcp".length());
+                final String hostPortStr = binding.getValue().get(0).get("HostPort");
+                try {
+                    publicTcpPorts.put(Integer.parseInt(internalPortStr), Integer.parseInt(hostPortStr));
+                } catch (NumberFormatException e) {
+                    LOGGER.debug("Unable to parse public port number for internal port {} (value found was {}) in container {}",
+                            internalPortStr, hostPortStr, container.id());
+                }
+            }
+        }
+        final NetworkSettings networkSettings = container.networkSettings();
+        final String containerIpAddress = networkSettings != null ? networkSettings.ipAddress() : null;
+        final ImmutableMap.Builder<String, String> networkAddresses = ImmutableMap.builder();
+        if (networkSettings != null && networkSettings.networks() != null) {
+            for (Map.Entry<String, NetworkSettings.Details> network : networkSettings.networks().entrySet()) {
+                if (network.getValue() != null && !Strings.isNullOrEmpty(network.getValue().ipAddress())) {
+                    networkAddresses.put(network.getKey(), network.getValue().ipAddress());
+                }
+            }
+        }
+        return new PortMappings(hostNetwork, publicTcpPorts.build(), containerIpAddress, networkAddresses.build());
+    }
+
+    boolean isHostNetwork() {
+        return hostNetwork;
+    }
+
+    /**
+     * Returns the TCP port on Docker host for given internal port number, or {@code -1} if the port isn't mapped.
+     */
+    int getPublicTcpPort(int tcpPort) {
+        if (hostNetwork) {
+            return tcpPort;
+        }
+        final Integer publicPort = publicTcpPorts.get(tcpPort);
+        return publicPort != null ? publicPort : -1;
+    }
+
+    String getContainerIpAddress() {
+        return containerIpAddress;
+    }
+
+    /**
+     * Returns the IP address of the container in given Docker network, or {@code null} if it's not connected to it.
+     */
+    String getNetworkAddress(String networkName) {
+        return networkAddresses.get(networkName);
+    }
+
+    @Override
+    public String toString() {
+        return "PortMappings [hostNetwork=" + hostNetwork + ", publicTcpPorts=" + publicTcpPorts + ", containerIpAddress="
+                + containerIpAddress + ", networkAddresses=" + networkAddresses + "]";
+    }
+}
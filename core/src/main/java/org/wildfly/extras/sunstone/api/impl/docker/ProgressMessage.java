@@ -9,6 +9,22 @@ public class ProgressMessage {
     private String status;
     private String progress;
     private String id;
+    private ProgressDetail progressDetail;
+
+    String getStatus() {
+        return status;
+    }
+
+    String getId() {
+        return id;
+    }
+
+    /**
+     * Returns number of bytes of the layer processed so far (e.g. downloaded), or {@code 0} if not known.
+     */
+    long getCurrentBytes() {
+        return progressDetail != null ? progressDetail.current : 0L;
+    }
 
     @Override
     public String toString() {
@@ -23,4 +39,8 @@ public class ProgressMessage {
 
         return sb.toString();
     }
+
+    private static class ProgressDetail {
+        private long current;
+    }
 }
@@ -0,0 +1,263 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.EnumSet;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
+
+/**
+ * Writes local files, directories and symbolic links as a POSIX (pax) tar stream, reading the files while the stream is
+ * consumed, so that the archive is never staged in memory or on disk. File modes are taken from the POSIX permissions
+ * if the local file system supports them; otherwise directories and executable files get {@code 0755} and other files
+ * {@code 0644}. Entries are owned by given numeric user and group IDs (the Docker daemon extracts them with this
+ * ownership). Names and link targets which don't fit the ustar header are written as pax extended headers.
+ */
+final class TarWriter implements Closeable {
+    private static final Logger LOGGER = SunstoneCoreLogger.DEFAULT;
+
+    private static final int BLOCK_SIZE = 512;
+    private static final byte TYPE_FILE = '0';
+    private static final byte TYPE_SYMLINK = '2';
+    private static final byte TYPE_DIRECTORY = '5';
+    private static final byte TYPE_PAX_HEADER = 'x';
+    private static final int NAME_LENGTH = 100;
+    private static final long MAX_USTAR_SIZE = 077777777777L;
+
+    private final OutputStream out;
+    private final int uid;
+    private final int gid;
+    private final byte[] copyBuffer = new byte[32 * 1024];
+    private boolean finished;
+
+    /**
+     * Creates a writer whose entries are owned by root.
+     */
+    TarWriter(OutputStream out) {
+        this(out, 0, 0);
+    }
+
+    /**
+     * Creates a writer whose entries are owned by given user and group IDs.
+     */
+    TarWriter(OutputStream out, int uid, int gid) {
+        this.out = out;
+        this.uid = uid;
+        this.gid = gid;
+    }
+
+    /**
+     * Writes given local path as entry with given name. Directories are written recursively and symbolic links are not
+     * followed.
+     */
+    void write(Path localSrc, String entryName) throws IOException {
+        Files.walkFileTree(localSrc, EnumSet.noneOf(FileVisitOption.class), Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                writeHeader(entryName(dir) + "/", TYPE_DIRECTORY, mode(dir, attrs), 0, attrs, "");
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (attrs.isSymbolicLink()) {
+                    writeHeader(entryName(file), TYPE_SYMLINK, 0777, 0, attrs, Files.readSymbolicLink(file).toString());
+                } else if (attrs.isRegularFile()) {
+                    writeFile(file, entryName(file), attrs);
+                } else {
+                    LOGGER.debug("Skipping '{}', only regular files, directories and symbolic links can be copied", file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private String entryName(Path path) {
+                final Path relative = localSrc.relativize(path);
+                if (relative.toString().isEmpty()) {
+                    return entryName;
+                }
+                final StringBuilder sb = new StringBuilder(entryName);
+                for (Path part : relative) {
+                    sb.append('/').append(part);
+                }
+                return sb.toString();
+            }
+        });
+    }
+
+    /**
+     * Writes the end of archive marker. The underlying stream is not closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            finished = true;
+            out.write(new byte[2 * BLOCK_SIZE]);
+            out.flush();
+        }
+    }
+
+    private void writeFile(Path file, String name, BasicFileAttributes attrs) throws IOException {
+        final long size = attrs.size();
+        writeHeader(name, TYPE_FILE, mode(file, attrs), size, attrs, "");
+        long remaining = size;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while (remaining > 0 && (read = in.read(copyBuffer, 0, (int) Math.min(copyBuffer.length, remaining))) > 0) {
+                out.write(copyBuffer, 0, read);
+                remaining -= read;
+            }
+        }
+        if (remaining > 0) {
+            // the file was truncated while being copied, the header can't be changed anymore
+            LOGGER.warn("File '{}' shrank while being copied, padding it with zeros", file);
+            while (remaining > 0) {
+                final int n = (int) Math.min(BLOCK_SIZE, remaining);
+                out.write(new byte[n]);
+                remaining -= n;
+            }
+        }
+        pad(size);
+    }
+
+    private void writeHeader(String name, byte type, int mode, long size, BasicFileAttributes attrs, String linkName)
+            throws IOException {
+        final byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        final byte[] linkNameBytes = linkName.getBytes(StandardCharsets.UTF_8);
+        final StringBuilder pax = new StringBuilder();
+        if (nameBytes.length > NAME_LENGTH || !isAscii(nameBytes)) {
+            appendPaxRecord(pax, "path", name);
+        }
+        if (linkNameBytes.length > NAME_LENGTH || !isAscii(linkNameBytes)) {
+            appendPaxRecord(pax, "linkpath", linkName);
+        }
+        if (size > MAX_USTAR_SIZE) {
+            appendPaxRecord(pax, "size", Long.toString(size));
+        }
+        final long mtime = attrs.lastModifiedTime().to(TimeUnit.SECONDS);
+        if (pax.length() > 0) {
+            final byte[] paxBytes = pax.toString().getBytes(StandardCharsets.UTF_8);
+            out.write(header(asciiName("PaxHeaders/" + name), TYPE_PAX_HEADER, 0644, paxBytes.length, mtime, ""));
+            out.write(paxBytes);
+            pad(paxBytes.length);
+        }
+        out.write(header(asciiName(name), type, mode, Math.min(size, MAX_USTAR_SIZE), mtime, asciiName(linkName)));
+    }
+
+    private byte[] header(String name, byte type, int mode, long size, long mtime, String linkName) {
+        final byte[] header = new byte[BLOCK_SIZE];
+        putString(header, 0, NAME_LENGTH, name);
+        putOctal(header, 100, 8, mode);
+        putOctal(header, 108, 8, uid);
+        putOctal(header, 116, 8, gid);
+        putOctal(header, 124, 12, size);
+        putOctal(header, 136, 12, Math.max(mtime, 0));
+        header[156] = type;
+        putString(header, 157, NAME_LENGTH, linkName);
+        putString(header, 257, 6, "ustar");
+        putString(header, 263, 2, "00");
+        // user and group names are only known for root, other entries are owned by the numeric IDs
+        if (uid == 0) {
+            putString(header, 265, 32, "root");
+        }
+        if (gid == 0) {
+            putString(header, 297, 32, "root");
+        }
+        // the checksum is computed with the checksum field filled with spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long checksum = 0;
+        for (byte b : header) {
+            checksum += b & 0xff;
+        }
+        putOctal(header, 148, 7, checksum);
+        return header;
+    }
+
+    private void pad(long size) throws IOException {
+        final int remainder = (int) (size % BLOCK_SIZE);
+        if (remainder > 0) {
+            out.write(new byte[BLOCK_SIZE - remainder]);
+        }
+    }
+
+    /**
+     * Appends a pax record {@code "<length> <key>=<value>\n"}, where the length includes the length field itself.
+     */
+    private static void appendPaxRecord(StringBuilder pax, String key, String value) {
+        final int contentLength = (" " + key + "=" + value + "\n").getBytes(StandardCharsets.UTF_8).length;
+        int length = contentLength + Integer.toString(contentLength).length();
+        if (Integer.toString(length).length() > Integer.toString(contentLength).length()) {
+            length++;
+        }
+        pax.append(length).append(' ').append(key).append('=').append(value).append('\n');
+    }
+
+    /**
+     * The name for the ustar header itself, only used by readers which don't support pax headers.
+     */
+    private static String asciiName(String name) {
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length() && sb.length() < NAME_LENGTH; i++) {
+            final char c = name.charAt(i);
+            sb.append(c < 0x80 ? c : '_');
+        }
+        return sb.toString();
+    }
+
+    private static boolean isAscii(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void putString(byte[] header, int offset, int length, String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, header, offset, Math.min(bytes.length, length));
+    }
+
+    /**
+     * Zero padded octal number terminated by NUL.
+     */
+    private static void putOctal(byte[] header, int offset, int length, long value) {
+        final String octal = Long.toOctalString(value);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = octal.length(); i < length - 1; i++) {
+            sb.append('0');
+        }
+        sb.append(octal);
+        putString(header, offset, length - 1, sb.toString());
+        header[offset + length - 1] = 0;
+    }
+
+    private static int mode(Path path, BasicFileAttributes attrs) {
+        try {
+            int mode = 0;
+            for (PosixFilePermission permission : Files
+                    .readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS).permissions()) {
+                // the permissions are declared in the order of the mode bits, from owner read to others execute
+                mode |= 0400 >> permission.ordinal();
+            }
+            return mode;
+        } catch (UnsupportedOperationException | IOException e) {
+            return attrs.isDirectory() || Files.isExecutable(path) ? 0755 : 0644;
+        }
+    }
+}
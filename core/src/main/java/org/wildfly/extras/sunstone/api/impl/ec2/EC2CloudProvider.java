@@ -30,6 +30,7 @@ import java.util.Set;
 public final class EC2CloudProvider extends AbstractJCloudsCloudProvider {
     public EC2CloudProvider(String providerName, Map<String, String> overrideMap) {
         super(providerName, CloudProviderType.EC2, overrideMap, EC2CloudProvider::createContextBuilder);
+        startNodePool();
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
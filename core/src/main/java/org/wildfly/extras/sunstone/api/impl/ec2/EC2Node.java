@@ -12,11 +12,11 @@ import org.jclouds.aws.ec2.compute.AWSEC2TemplateOptions;
 import org.jclouds.compute.RunNodesException;
 import org.jclouds.compute.domain.NodeMetadata;
 import org.jclouds.compute.domain.Template;
-import org.jclouds.compute.domain.TemplateBuilder;
 import org.jclouds.ec2.compute.options.EC2TemplateOptions;
 import org.jclouds.ec2.domain.InstanceState;
 import org.jclouds.ec2.domain.RunningInstance;
 import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsNode;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
@@ -39,9 +39,6 @@ public class EC2Node extends AbstractJCloudsNode<EC2CloudProvider> {
     public EC2Node(EC2CloudProvider ec2CloudProvider, String name, Map<String, String> configOverrides) {
         super(ec2CloudProvider, name, configOverrides);
 
-        EC2TemplateOptions templateOptions = buildTemplateOptions(objectProperties);
-        final TemplateBuilder templateBuilder = computeService.templateBuilder();
-
         final String region = getRegion();
         final String instanceType = getInstanceType();
 
@@ -52,21 +49,28 @@ public class EC2Node extends AbstractJCloudsNode<EC2CloudProvider> {
             throw new IllegalArgumentException("No instance type was provided for node " + name);
         }
 
+        // the image is resolved first, so that building the template is a single phase
+        final long imageStart = System.nanoTime();
         ResolvedImage resolvedImage = ResolvedImage.fromNameAndId(
                 objectProperties.getProperty(Config.Node.EC2.IMAGE),
                 objectProperties.getProperty(Config.Node.EC2.IMAGE_ID),
                 region,
                 computeService
         );
+        final String imageId = preferBakedImage(resolvedImage.fullId, region);
+        provisioningPhaseFinished(ProvisioningPhase.IMAGE_RESOLUTION, imageStart);
 
         this.imageName = resolvedImage.humanReadableName;
 
-        final Template template = templateBuilder
+        final long templateStart = System.nanoTime();
+        EC2TemplateOptions templateOptions = buildTemplateOptions(objectProperties);
+        final Template template = computeService.templateBuilder()
                 .hardwareId(instanceType)
                 .locationId(region)
-                .imageId(resolvedImage.fullId)
+                .imageId(imageId)
                 .options(templateOptions)
                 .build();
+        provisioningPhaseFinished(ProvisioningPhase.TEMPLATE_BUILD, templateStart);
 
         LOGGER.debug("Creating {} node from template: {}",
                 cloudProvider.getCloudProviderType().getHumanReadableName(), template);
@@ -269,6 +273,8 @@ public class EC2Node extends AbstractJCloudsNode<EC2CloudProvider> {
             LOGGER.warn("Instance {} hasn't switched state to {} in time: {} seconds. Current instance state is: {}",
                     initialNodeMetadata.getId().split("/")[1], targetInstanceState, timeoutSec, getInstance().getInstanceState());
         }
+        // the addresses change when the instance is stopped and started again
+        invalidateNodeMetadata();
     }
 
     /**
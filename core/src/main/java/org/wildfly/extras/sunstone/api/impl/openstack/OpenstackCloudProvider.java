@@ -25,6 +25,7 @@ import com.google.inject.Module;
 public final class OpenstackCloudProvider extends AbstractJCloudsCloudProvider {
     public OpenstackCloudProvider(String providerName, Map<String, String> overrideMap) {
         super(providerName, CloudProviderType.OPENSTACK, overrideMap, OpenstackCloudProvider::createContextBuilder);
+        startNodePool();
     }
 
     private static ContextBuilder createContextBuilder(ObjectProperties objectProperties) {
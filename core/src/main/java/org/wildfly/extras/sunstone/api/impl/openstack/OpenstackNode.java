@@ -21,6 +21,7 @@ import org.jclouds.openstack.nova.v2_0.compute.options.NovaTemplateOptions;
 import org.jclouds.openstack.nova.v2_0.domain.FloatingIPPool;
 import org.jclouds.openstack.nova.v2_0.extensions.FloatingIPPoolApi;
 import org.slf4j.Logger;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsNode;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
@@ -46,6 +47,32 @@ public class OpenstackNode extends AbstractJCloudsNode<OpenstackCloudProvider> {
     public OpenstackNode(OpenstackCloudProvider osCloudProvider, String name, Map<String, String> configOverrides) {
         super(osCloudProvider, name, configOverrides);
 
+        String region = objectProperties.getProperty(Config.Node.Openstack.REGION);
+        if (Strings.isNullOrEmpty(region)) {
+            LOGGER.debug("Region for node '{}' was not configured, trying to assign automatically", name);
+            Set<? extends Location> locations = computeService.listAssignableLocations();
+            if (locations.size() == 1) {
+                region = locations.iterator().next().getId();
+                LOGGER.debug("Automatically assigned region '{}' to node '{}'", region, name);
+            } else {
+                LOGGER.warn("Failed to automatically assign region to node '{}', use {} (too many regions found: {})",
+                        name, Config.Node.Openstack.REGION, locations);
+                throw new IllegalArgumentException("Region was not configured for node " + name);
+            }
+        }
+
+        // the image is resolved first, so that building the template is a single phase
+        final long imageStart = System.nanoTime();
+        ResolvedImage resolvedImage = ResolvedImage.fromNameAndId(
+                objectProperties.getProperty(Config.Node.Openstack.IMAGE),
+                objectProperties.getProperty(Config.Node.Openstack.IMAGE_ID),
+                region, computeService
+        );
+        final String imageId = preferBakedImage(resolvedImage.fullId, region);
+        provisioningPhaseFinished(ProvisioningPhase.IMAGE_RESOLUTION, imageStart);
+        this.imageName = resolvedImage.humanReadableName;
+
+        final long templateStart = System.nanoTime();
         NovaTemplateOptions templateOptions = buildTemplateOptions(objectProperties);
 
         final TemplateBuilder templateBuilder = computeService.templateBuilder();
@@ -67,28 +94,8 @@ public class OpenstackNode extends AbstractJCloudsNode<OpenstackCloudProvider> {
             }
             templateBuilder.hardwareId(hwId);
         }
-        String region = objectProperties.getProperty(Config.Node.Openstack.REGION);
-        if (Strings.isNullOrEmpty(region)) {
-            LOGGER.debug("Region for node '{}' was not configured, trying to assign automatically", name);
-            Set<? extends Location> locations = computeService.listAssignableLocations();
-            if (locations.size() == 1) {
-                region = locations.iterator().next().getId();
-                LOGGER.debug("Automatically assigned region '{}' to node '{}'", region, name);
-            } else {
-                LOGGER.warn("Failed to automatically assign region to node '{}', use {} (too many regions found: {})",
-                        name, Config.Node.Openstack.REGION, locations);
-                throw new IllegalArgumentException("Region was not configured for node " + name);
-            }
-        }
         templateBuilder.locationId(region);
 
-        ResolvedImage resolvedImage = ResolvedImage.fromNameAndId(
-                objectProperties.getProperty(Config.Node.Openstack.IMAGE),
-                objectProperties.getProperty(Config.Node.Openstack.IMAGE_ID),
-                region, computeService
-        );
-        this.imageName = resolvedImage.humanReadableName;
-
         if (!templateOptions.getFloatingIpPoolNames().isPresent()) {
             LOGGER.debug("Floating IP pool for node '{}' was not configured, trying to assign automatically", name);
             final Optional<FloatingIPPoolApi> floatingIPPoolApi = osCloudProvider.getNovaApi().getFloatingIPPoolApi(region);
@@ -102,7 +109,8 @@ public class OpenstackNode extends AbstractJCloudsNode<OpenstackCloudProvider> {
             }
         }
 
-        final Template template = templateBuilder.imageId(resolvedImage.fullId).options(templateOptions).build();
+        final Template template = templateBuilder.imageId(imageId).options(templateOptions).build();
+        provisioningPhaseFinished(ProvisioningPhase.TEMPLATE_BUILD, templateStart);
 
         LOGGER.debug("Creating {} node from template: {}",
                 cloudProvider.getCloudProviderType().getHumanReadableName(), template);
@@ -14,6 +14,15 @@ public interface JCloudsNode extends Node {
      */
     NodeMetadata getFreshNodeMetadata();
 
+    /**
+     * Returns the JClouds {@link NodeMetadata} that reflect the node state as of a recent time. Implementations may cache
+     * the result of {@link #getFreshNodeMetadata()} for a short time, so repeated calls don't perform network
+     * communication each time. The default implementation just calls {@link #getFreshNodeMetadata()}.
+     */
+    default NodeMetadata getCachedNodeMetadata() {
+        return getFreshNodeMetadata();
+    }
+
     /**
      * Returns the JClouds {@link NodeMetadata} that reflect the node state as of the time the node was created.
      * Doesn't perform any network communication, so it's way faster than {@link #getFreshNodeMetadata()}, but it's
@@ -0,0 +1,39 @@
+package org.wildfly.extras.sunstone.api.process;
+
+import java.io.IOException;
+
+import org.wildfly.extras.sunstone.api.ExecResult;
+import org.wildfly.extras.sunstone.api.Node;
+import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
+import org.wildfly.extras.sunstone.api.ssh.SshClient;
+
+/**
+ * The way a shell command rendered by {@link ExecBuilder} gets executed on a {@link Node}. Each node type provides
+ * the cheapest transport it has (see {@link Node#commandTransport()}), e.g. Docker nodes use the Docker exec API, other
+ * nodes use {@link #ssh(Node) SSH}.
+ */
+@FunctionalInterface
+public interface CommandTransport {
+
+    /**
+     * Executes given shell command (as if logged in to the node by SSH) and waits until it finishes.
+     *
+     * @param command the command line to be interpreted by a POSIX shell
+     * @return the output and exit code of the command
+     * @throws OperationNotSupportedException if the transport is not available for the node
+     * @throws IOException when network error occurs
+     * @throws InterruptedException when interrupted while waiting for the command to finish
+     */
+    ExecResult execAndWait(String command) throws OperationNotSupportedException, IOException, InterruptedException;
+
+    /**
+     * Returns a transport which opens an {@link Node#ssh() SSH connection} to given node for each command.
+     */
+    static CommandTransport ssh(Node node) {
+        return command -> {
+            try (SshClient ssh = node.ssh()) {
+                return ssh.execAndWait(command);
+            }
+        };
+    }
+}
@@ -18,13 +18,13 @@ import org.wildfly.extras.sunstone.api.impl.AbstractJCloudsCloudProvider;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.DaemonExecResult;
 import org.wildfly.extras.sunstone.api.impl.SunstoneCoreLogger;
-import org.wildfly.extras.sunstone.api.ssh.SshClient;
 
 /**
  * This class comes with advanced support for command execution - it adds possibility to run command on Nodes as a daemon (i.e.
  * {@code nohup}) or with {@code sudo}. The class is inspired by {@link ProcessBuilder}.
  * <p>
- * Current implementation depends on SSH available in Node, but this is implementation detail which can change in the future.
+ * The command is executed by the {@link Node#commandTransport() command transport} of the Node, which is SSH for most node
+ * types (Docker nodes use Docker exec).
  * <p>
  * Sample usage:
  *
@@ -110,11 +110,12 @@ public class ExecBuilder {
     }
 
     /**
-     * Executes the configured SSH command on given Node. SSH has to be available (and configured correctly) for the
-     * {@code node}.
+     * Executes the configured command on given Node using its {@link Node#commandTransport() command transport}. For most
+     * nodes, it's SSH, which has to be available (and configured correctly) for the {@code node}.
      *
      * @return the {@link #EXEC_RESULT_DAEMON} constant if the command is to be executed as a daemon
-     * @throws OperationNotSupportedException SSH client could not be obtained or did not successfully connect
+     * @throws OperationNotSupportedException the command transport (e.g. SSH client) could not be obtained or did not
+     *         successfully connect
      * @throws IOException when network error occurs
      * @throws InterruptedException when interrupted while waiting for (non-daemon) command to finish
      */
@@ -124,15 +125,13 @@ public class ExecBuilder {
         String renderedCommand = renderCommand(node);
         LOGGER.debug("Executing command on node '{}': {}", node.getName(), renderedCommand);
 
-        try (SshClient ssh = node.ssh()) {
-            ExecResult execResult = ssh.execAndWait(renderedCommand);
-            if (asDaemon) {
-                LOGGER.trace("Nohup execution result (will not be propagated): {}", execResult);
-                execResult = EXEC_RESULT_DAEMON;
-            }
-            LOGGER.trace("ExecBuilder execution result: {}", execResult);
-            return execResult;
+        ExecResult execResult = node.commandTransport().execAndWait(renderedCommand);
+        if (asDaemon) {
+            LOGGER.trace("Nohup execution result (will not be propagated): {}", execResult);
+            execResult = EXEC_RESULT_DAEMON;
         }
+        LOGGER.trace("ExecBuilder execution result: {}", execResult);
+        return execResult;
     }
 
     /**
@@ -249,7 +248,7 @@ public class ExecBuilder {
     }
 
     /**
-     * Renders the SSH command which will be executed. Things which were taken to account are:
+     * Renders the shell command which will be executed. Things which were taken to account are:
      * <ul>
      * <li>command arguments quoting</li>
      * <li>PTY allocation related issues (see also https://github.com/hierynomus/sshj/issues/194)</li>
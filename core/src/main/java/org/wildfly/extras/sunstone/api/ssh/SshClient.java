@@ -1,20 +1,25 @@
 package org.wildfly.extras.sunstone.api.ssh;
 
-import com.google.common.io.CharStreams;
+import com.google.common.io.ByteStreams;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.function.Supplier;
 
 import org.wildfly.extras.sunstone.api.ExecResult;
 import org.wildfly.extras.sunstone.api.impl.DefaultExecResult;
+import org.wildfly.extras.sunstone.api.impl.StreamPump;
 
 /**
  * An SSH client that allows executing remote commands and copying files (in both directions).
- * Each instance of this class has a dedicated SSH connection, so reusing {@code SshClient}s
- * is a good idea. Users are responsible for closing the {@code SshClient}.
+ * Each instance of this class has a dedicated SSH connection until it's closed; implementations may keep
+ * the connection open afterwards and hand it out again, so that the next {@code SshClient} for the same node
+ * doesn't have to connect and authenticate. Users are responsible for closing the {@code SshClient}.
  */
 public interface SshClient extends AutoCloseable {
     /**
@@ -28,21 +33,85 @@ public interface SshClient extends AutoCloseable {
     /**
      * Starts the {@code command} on the remote node and waits until it finishes running. Then returns an object
      * that contains useful information: stdout and stderr content as a {@code String} (interpreted as UTF-8)
-     * and the exit code.
+     * and the exit code. The whole output is kept in memory; for commands with a large output, use
+     * {@link #execAndWait(String, OutputStream, OutputStream)}.
      */
     default ExecResult execAndWait(String command) throws IOException, InterruptedException {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final ByteArrayOutputStream stderr = new ByteArrayOutputStream();
+        final int exitCode = execAndWait(command, stdout, stderr);
+        return new DefaultExecResult(new String(stdout.toByteArray(), StandardCharsets.UTF_8),
+                new String(stderr.toByteArray(), StandardCharsets.UTF_8), exitCode);
+    }
+
+    /**
+     * Starts the {@code command} on the remote node and copies its stdout and stderr to given streams while it runs,
+     * then waits until it finishes running. Both outputs are read concurrently, so the command never blocks on a full
+     * output buffer, and the memory used only depends on the given streams: use e.g. a {@link TailOutputStream} to keep
+     * only the end of the output, or a stream of a (temporary) file for outputs which don't fit in memory. The streams
+     * are not closed.
+     *
+     * @return the exit code of the command, or {@code -1} if it's not available
+     */
+    default int execAndWait(String command, OutputStream stdout, OutputStream stderr)
+            throws IOException, InterruptedException {
+        return execAndRead(command, in -> ByteStreams.copy(in, stdout), stderr);
+    }
+
+    /**
+     * Starts the {@code command} on the remote node, passes its stdout to given reader and copies its stderr to given
+     * stream, concurrently (on a shared thread, see {@link StreamPump}), and then waits until it finishes running. Whatever the reader leaves unread is skipped. If
+     * the reader throws an exception, the command is closed and the exception is rethrown. The stderr stream is not
+     * closed.
+     *
+     * @return the exit code of the command, or {@code -1} if it's not available
+     */
+    default int execAndRead(String command, StdoutReader stdoutReader, OutputStream stderr)
+            throws IOException, InterruptedException {
         try (CommandExecution execution = exec(command)) {
+            final CompletableFuture<Void> stderrCopied = StreamPump.start(execution.stderr(), stderr);
 
+            try (InputStream in = execution.stdout()) {
+                stdoutReader.read(in);
+                ByteStreams.copy(in, ByteStreams.nullOutputStream());
+            }
+            try {
+                stderrCopied.get();
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
             execution.await();
+            return execution.exitCode().orElse(-1);
+        }
+    }
 
-            try (InputStream stdout = execution.stdout(); InputStream stderr = execution.stderr()) {
-                return new DefaultExecResult(
-                        CharStreams.toString(new InputStreamReader(stdout, StandardCharsets.UTF_8)),
-                        CharStreams.toString(new InputStreamReader(stderr, StandardCharsets.UTF_8)),
-                        execution.exitCode().orElse(-1)
-                );
-            }
+    /**
+     * Consumes the stdout of a command, see {@link #execAndRead(String, StdoutReader, OutputStream)}.
+     */
+    @FunctionalInterface
+    interface StdoutReader {
+        void read(InputStream stdout) throws IOException;
+    }
+
+    /**
+     * Starts the {@code command} on the remote node without waiting for it, and returns a future of the same result
+     * as {@link #execAndWait(String)}. Implementations which can run more commands at once over their connection
+     * (e.g. as separate SSH channels of one session) run the submitted commands concurrently, so many independent
+     * commands don't need many connections. The default implementation runs the command right away and returns
+     * a completed future. Closing the {@code SshClient} cancels the commands which didn't finish.
+     */
+    default CompletableFuture<ExecResult> submit(String command) {
+        final CompletableFuture<ExecResult> result = new CompletableFuture<>();
+        try {
+            result.complete(execAndWait(command));
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
         }
+        return result;
     }
 
     /**
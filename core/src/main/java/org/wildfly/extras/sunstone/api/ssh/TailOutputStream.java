@@ -0,0 +1,86 @@
+package org.wildfly.extras.sunstone.api.ssh;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An output stream which keeps only the last {@code maxBytes} bytes written to it, e.g. to collect the end of a long
+ * command output by {@link SshClient#execAndWait(String, java.io.OutputStream, java.io.OutputStream)} without keeping
+ * all of it in memory.
+ */
+public final class TailOutputStream extends OutputStream {
+    private final byte[] buffer;
+    // position of the next write in the buffer
+    private int position;
+    private long totalBytes;
+
+    public TailOutputStream(int maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Maximum number of bytes must be positive: " + maxBytes);
+        }
+        this.buffer = new byte[maxBytes];
+    }
+
+    @Override
+    public synchronized void write(int b) {
+        buffer[position] = (byte) b;
+        position = (position + 1) % buffer.length;
+        totalBytes++;
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || off + len > b.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        totalBytes += len;
+        if (len >= buffer.length) {
+            // only the end of the chunk fits
+            System.arraycopy(b, off + len - buffer.length, buffer, 0, buffer.length);
+            position = 0;
+            return;
+        }
+        final int firstPart = Math.min(len, buffer.length - position);
+        System.arraycopy(b, off, buffer, position, firstPart);
+        System.arraycopy(b, off + firstPart, buffer, 0, len - firstPart);
+        position = (position + len) % buffer.length;
+    }
+
+    /**
+     * Returns the number of all bytes written, including the ones which were dropped.
+     */
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns {@code true} if the beginning of the written data was dropped.
+     */
+    public synchronized boolean isTruncated() {
+        return totalBytes > buffer.length;
+    }
+
+    /**
+     * Returns the last (at most {@code maxBytes}) bytes written.
+     */
+    public synchronized byte[] toByteArray() {
+        if (totalBytes < buffer.length) {
+            final byte[] result = new byte[position];
+            System.arraycopy(buffer, 0, result, 0, position);
+            return result;
+        }
+        final byte[] result = new byte[buffer.length];
+        System.arraycopy(buffer, position, result, 0, buffer.length - position);
+        System.arraycopy(buffer, 0, result, buffer.length - position, position);
+        return result;
+    }
+
+    /**
+     * Returns the last bytes written, decoded as UTF-8. If the output was truncated, the first character may be
+     * incomplete.
+     */
+    @Override
+    public String toString() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,130 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link BoundedExecutor} limits and queue policies.
+ */
+public class BoundedExecutorTest {
+
+    private ExecutorService threads;
+
+    @Before
+    public void setUp() {
+        threads = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        threads.shutdownNow();
+    }
+
+    @Test
+    public void testQueuedTasksRespectLimit() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(threads, 2, BoundedExecutor.QueuePolicy.QUEUE);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(10);
+        for (int i = 0; i < 10; i++) {
+            executor.execute(() -> {
+                int current = running.incrementAndGet();
+                maxRunning.accumulateAndGet(current, Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                finished.countDown();
+            });
+        }
+        assertTrue("All tasks should finish", finished.await(10, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+    }
+
+    @Test
+    public void testAbortPolicy() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(threads, 1, BoundedExecutor.QueuePolicy.ABORT);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        try {
+            executor.execute(() -> { });
+            fail("The second task should be rejected");
+        } catch (RejectedExecutionException expected) {
+            // OK
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testCallerRunsPolicy() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(threads, 1, BoundedExecutor.QueuePolicy.CALLER_RUNS);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+        executor.execute(() -> runner.set(Thread.currentThread()));
+        release.countDown();
+        assertEquals(Thread.currentThread(), runner.get());
+    }
+
+    @Test
+    public void testQueuedTaskRunsAfterDelegateShutdown() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(threads, 1, BoundedExecutor.QueuePolicy.QUEUE);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch queuedRun = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        executor.execute(queuedRun::countDown);
+        threads.shutdown();
+        release.countDown();
+        assertTrue("Queued task should not be dropped", queuedRun.await(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCloseRunsQueuedTasks() throws Exception {
+        final BoundedExecutor executor = new BoundedExecutor(threads, 1, BoundedExecutor.QueuePolicy.QUEUE);
+        final CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> awaitQuietly(release));
+        final AtomicReference<Thread> runner = new AtomicReference<>();
+        executor.execute(() -> runner.set(Thread.currentThread()));
+        try {
+            executor.close();
+            assertEquals(Thread.currentThread(), runner.get());
+            try {
+                executor.execute(() -> { });
+                fail("Closed executor should reject tasks");
+            } catch (RejectedExecutionException expected) {
+                // OK
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownQueuePolicy() {
+        BoundedExecutor.QueuePolicy.fromLabel("discard");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link BoundedPipe}.
+ */
+public class BoundedPipeTest {
+
+    @Test
+    public void testTransfersMoreThanCapacity() throws Exception {
+        final BoundedPipe pipe = new BoundedPipe(16);
+        final byte[] data = new byte[10_000];
+        new Random(42).nextBytes(data);
+
+        final CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try (OutputStream sink = pipe.sink()) {
+                for (int i = 0; i < data.length; i += 7) {
+                    sink.write(data, i, Math.min(7, data.length - i));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        try (InputStream source = pipe.source()) {
+            final byte[] buffer = new byte[5];
+            int n;
+            while ((n = source.read(buffer)) != -1) {
+                received.write(buffer, 0, n);
+            }
+        }
+        producer.get(10, TimeUnit.SECONDS);
+        assertArrayEquals(data, received.toByteArray());
+    }
+
+    @Test
+    public void testClosedSourceDoesNotBlockProducer() throws Exception {
+        final BoundedPipe pipe = new BoundedPipe(4);
+        pipe.source().close();
+        // would block forever if the data weren't discarded
+        CompletableFuture.runAsync(() -> {
+            try {
+                pipe.sink().write(new byte[100]);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testFailureIsReportedAfterData() throws Exception {
+        final BoundedPipe pipe = new BoundedPipe();
+        pipe.sink().write(1);
+        pipe.fail(new IOException("broken"));
+        final InputStream source = pipe.source();
+        assertEquals(1, source.read());
+        try {
+            source.read();
+            fail("The failure of the producer should be reported");
+        } catch (IOException e) {
+            assertEquals("broken", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.jclouds.compute.domain.ExecChannel;
+import org.junit.Test;
+
+/**
+ * Tests {@link JCloudsCommandExecution}.
+ */
+public class JCloudsCommandExecutionTest {
+
+    private final AtomicReference<Integer> exitStatus = new AtomicReference<>();
+
+    private JCloudsCommandExecution execution() {
+        return new JCloudsCommandExecution(new ExecChannel(new ByteArrayOutputStream(),
+                new ByteArrayInputStream(new byte[0]), new ByteArrayInputStream(new byte[0]), exitStatus::get, () -> { }));
+    }
+
+    private void exitAfter(long millis, int status) {
+        final Thread thread = new Thread(() -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exitStatus.set(status);
+        });
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Test
+    public void testAwaitReturnsSoonAfterExit() throws Exception {
+        final JCloudsCommandExecution execution = execution();
+        // with the previous exponential backoff from 100 ms, an exit after 2 seconds was noticed after 3.1 seconds
+        exitAfter(2000, 3);
+        final long start = System.nanoTime();
+        execution.await();
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Exit noticed after " + elapsedMillis + " ms", elapsedMillis < 2500);
+        assertEquals(3, execution.exitCode().getAsInt());
+    }
+
+    @Test
+    public void testAwaitWithTimeout() throws Exception {
+        final JCloudsCommandExecution execution = execution();
+        exitAfter(500, 0);
+        execution.await(1, TimeUnit.MINUTES);
+        assertEquals(0, execution.exitCode().getAsInt());
+    }
+
+    @Test
+    public void testAwaitTimeout() throws Exception {
+        final JCloudsCommandExecution execution = execution();
+        final long start = System.nanoTime();
+        try {
+            execution.await(300, TimeUnit.MILLISECONDS);
+            fail("Command didn't exit, await should time out");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+        final long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue("Timed out after " + elapsedMillis + " ms", elapsedMillis >= 300 && elapsedMillis < 1000);
+        assertFalse(execution.exitCode().isPresent());
+    }
+}
@@ -0,0 +1,57 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.NodeMetadataBuilder;
+import org.junit.Test;
+
+/**
+ * Tests {@link NodeMetadataCache}.
+ */
+public class NodeMetadataCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private NodeMetadata load() {
+        return new NodeMetadataBuilder().id("node-" + loads.incrementAndGet()).status(NodeMetadata.Status.RUNNING)
+                .build();
+    }
+
+    @Test
+    public void testCachedWithinTtl() {
+        final NodeMetadataCache cache = new NodeMetadataCache(this::load, 60_000);
+        final NodeMetadata first = cache.get();
+        assertSame(first, cache.get());
+        assertSame(first, cache.get());
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.getStatistics().getHits());
+        assertEquals(1, cache.getStatistics().getMisses());
+    }
+
+    @Test
+    public void testInvalidateAndRefresh() {
+        final NodeMetadataCache cache = new NodeMetadataCache(this::load, 60_000);
+        cache.get();
+        cache.invalidate();
+        assertEquals("node-2", cache.get().getId());
+
+        final NodeMetadata refreshed = cache.refresh();
+        assertEquals("node-3", refreshed.getId());
+        assertSame(refreshed, cache.get());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    public void testZeroTtlDisablesCaching() {
+        final NodeMetadataCache cache = new NodeMetadataCache(this::load, 0);
+        cache.get();
+        cache.get();
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStatistics().getHits());
+        assertEquals(2, cache.getStatistics().getMisses());
+    }
+}
@@ -0,0 +1,222 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jclouds.compute.ComputeService;
+import org.jclouds.compute.RunNodesException;
+import org.jclouds.compute.domain.NodeMetadata;
+import org.jclouds.compute.domain.Template;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Tests grouping of node creations in {@link ProvisioningBatch}.
+ */
+public class ProvisioningBatchTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testIdenticalTemplatesAreCreatedTogether() throws Exception {
+        final Template templateA = stub(Template.class);
+        final Template templateB = stub(Template.class);
+        final NodeMetadata a1 = stub(NodeMetadata.class);
+        final NodeMetadata a2 = stub(NodeMetadata.class);
+        final NodeMetadata b1 = stub(NodeMetadata.class);
+        final StubComputeService stubComputeService = new StubComputeService();
+        stubComputeService.nodes.put(templateA, ImmutableSet.of(a1, a2));
+        stubComputeService.nodes.put(templateB, ImmutableSet.of(b1));
+        final ComputeService computeService = stubComputeService.create();
+
+        final ProvisioningBatch batch = new ProvisioningBatch();
+        final CountDownLatch allJoined = new CountDownLatch(3);
+        List<CompletableFuture<NodeMetadata>> futures = IntStream.range(0, 3)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    try (ProvisioningBatch.Party party = batch.join()) {
+                        allJoined.countDown();
+                        allJoined.await();
+                        return party.createNode(computeService, "group", i == 1 ? templateB : templateA);
+                    } catch (InterruptedException | RunNodesException e) {
+                        throw new RuntimeException(e);
+                    }
+                }, executor))
+                .collect(Collectors.toList());
+
+        Set<NodeMetadata> created = new HashSet<>();
+        for (CompletableFuture<NodeMetadata> future : futures) {
+            created.add(future.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(ImmutableSet.of(a1, a2, b1), created);
+        assertEquals(2, stubComputeService.calls.size());
+        assertTrue(stubComputeService.calls.contains("group:2:" + templateA));
+        assertTrue(stubComputeService.calls.contains("group:1:" + templateB));
+    }
+
+    @Test
+    public void testPartyLeavingDoesNotBlockOthers() throws Exception {
+        final Template template = stub(Template.class);
+        final NodeMetadata node = stub(NodeMetadata.class);
+        final StubComputeService stubComputeService = new StubComputeService();
+        stubComputeService.nodes.put(template, ImmutableSet.of(node));
+        final ComputeService computeService = stubComputeService.create();
+
+        final ProvisioningBatch batch = new ProvisioningBatch();
+        final CountDownLatch allJoined = new CountDownLatch(2);
+        CompletableFuture<NodeMetadata> creating = CompletableFuture.supplyAsync(() -> {
+            try (ProvisioningBatch.Party party = batch.join()) {
+                allJoined.countDown();
+                allJoined.await();
+                return party.createNode(computeService, "group", template);
+            } catch (InterruptedException | RunNodesException e) {
+                throw new RuntimeException(e);
+            }
+        }, executor);
+        CompletableFuture<Void> failing = CompletableFuture.runAsync(() -> {
+            try (ProvisioningBatch.Party party = batch.join()) {
+                allJoined.countDown();
+                allJoined.await();
+                Thread.sleep(200);
+                throw new IllegalStateException("failed before the node was created");
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        }, executor);
+
+        assertEquals(node, creating.get(10, TimeUnit.SECONDS));
+        try {
+            failing.join();
+            fail("The second party was expected to fail");
+        } catch (Exception expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(Collections.singletonList("group:1:" + template), stubComputeService.calls);
+    }
+
+    @Test
+    public void testInterruptedPartyDoesNotBlockOthers() throws Exception {
+        final Template template = stub(Template.class);
+        final NodeMetadata node = stub(NodeMetadata.class);
+        final StubComputeService stubComputeService = new StubComputeService();
+        stubComputeService.nodes.put(template, ImmutableSet.of(node));
+        final ComputeService computeService = stubComputeService.create();
+
+        final ProvisioningBatch batch = new ProvisioningBatch();
+        final CountDownLatch allJoined = new CountDownLatch(2);
+        final CountDownLatch interruptedLeft = new CountDownLatch(1);
+        final CompletableFuture<NodeMetadata> interrupted = new CompletableFuture<>();
+        final Thread interruptedThread = new Thread(() -> {
+            try (ProvisioningBatch.Party party = batch.join()) {
+                allJoined.countDown();
+                allJoined.await();
+                interrupted.complete(party.createNode(computeService, "group", template));
+            } catch (Exception e) {
+                interrupted.completeExceptionally(e);
+            } finally {
+                interruptedLeft.countDown();
+            }
+        });
+        final CompletableFuture<NodeMetadata> creating = CompletableFuture.supplyAsync(() -> {
+            try (ProvisioningBatch.Party party = batch.join()) {
+                allJoined.countDown();
+                allJoined.await();
+                interruptedLeft.await();
+                return party.createNode(computeService, "group", template);
+            } catch (InterruptedException | RunNodesException e) {
+                throw new RuntimeException(e);
+            }
+        }, executor);
+        interruptedThread.start();
+
+        // the first party arrived and waits for the second one
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (interruptedThread.getState() != Thread.State.WAITING) {
+            assertTrue("The first party should wait for the second one", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        interruptedThread.interrupt();
+
+        assertEquals(node, creating.get(10, TimeUnit.SECONDS));
+        try {
+            interrupted.get(10, TimeUnit.SECONDS);
+            fail("The interrupted party was expected to fail");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(Collections.singletonList("group:1:" + template), stubComputeService.calls);
+    }
+
+    /** Creates an instance of given interface which only supports identity based equals/hashCode/toString. */
+    private static <T> T stub(Class<T> iface) {
+        final String name = iface.getSimpleName() + "@" + STUB_COUNTER.incrementAndGet();
+        return iface.cast(Proxy.newProxyInstance(iface.getClassLoader(), new Class<?>[] { iface }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return name;
+                default:
+                    throw new UnsupportedOperationException(method.getName());
+            }
+        }));
+    }
+
+    private static final AtomicInteger STUB_COUNTER = new AtomicInteger();
+
+    /** Records {@code createNodesInGroup} calls and returns preconfigured nodes for each template. */
+    private static final class StubComputeService {
+        private final Map<Template, Set<NodeMetadata>> nodes = new HashMap<>();
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<>());
+
+        private ComputeService create() {
+            return (ComputeService) Proxy.newProxyInstance(ComputeService.class.getClassLoader(),
+                    new Class<?>[] { ComputeService.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "createNodesInGroup":
+                                calls.add(args[0] + ":" + args[1] + ":" + args[2]);
+                                return nodes.get(args[2]);
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                throw new UnsupportedOperationException(method.getName());
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.function.Function;
+
+import org.jclouds.ContextBuilder;
+import org.junit.Test;
+import org.wildfly.extras.sunstone.api.CloudProviderType;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests sharing of JClouds contexts by {@link SharedComputeServiceContext}, using the JClouds "stub" compute API.
+ */
+public class SharedComputeServiceContextTest {
+
+    private static final Function<ObjectProperties, ContextBuilder> STUB_CONTEXT = objectProperties -> ContextBuilder
+            .newBuilder("stub")
+            .credentials(objectProperties.getProperty("identity"), "credential");
+
+    @Test
+    public void testSameConfigurationSharesContext() {
+        try (SharedComputeServiceContext.Lease first = acquire("provider1", "identity1", true);
+                SharedComputeServiceContext.Lease second = acquire("provider2", "identity1", true);
+                SharedComputeServiceContext.Lease other = acquire("provider3", "identity2", true)) {
+            assertSame(first.getContext(), second.getContext());
+            assertSame(first.getInjector(), second.getInjector());
+            assertNotSame(first.getContext(), other.getContext());
+        }
+    }
+
+    @Test
+    public void testContextIsRebuiltAfterLastRelease() {
+        final SharedComputeServiceContext.Lease first = acquire("provider1", "identity1", true);
+        final SharedComputeServiceContext.Lease second = acquire("provider2", "identity1", true);
+        first.close();
+        // closing the lease twice must not release the context used by the second provider
+        first.close();
+        try (SharedComputeServiceContext.Lease third = acquire("provider3", "identity1", true)) {
+            assertSame(second.getContext(), third.getContext());
+            second.close();
+        }
+        try (SharedComputeServiceContext.Lease fourth = acquire("provider4", "identity1", true)) {
+            assertNotSame(first.getContext(), fourth.getContext());
+        }
+    }
+
+    @Test
+    public void testSharingCanBeDisabled() {
+        try (SharedComputeServiceContext.Lease first = acquire("provider1", "identity1", true);
+                SharedComputeServiceContext.Lease unshared = acquire("provider2", "identity1", false)) {
+            assertNotSame(first.getContext(), unshared.getContext());
+        }
+    }
+
+    private static SharedComputeServiceContext.Lease acquire(String providerName, String identity, boolean shared) {
+        final ObjectProperties objectProperties = new ObjectProperties(ObjectType.CLOUD_PROVIDER, providerName,
+                ImmutableMap.of("identity", identity));
+        return SharedComputeServiceContext.acquire(CloudProviderType.DOCKER, objectProperties, STUB_CONTEXT, shared);
+    }
+}
@@ -0,0 +1,151 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jclouds.compute.domain.ExecResponse;
+import org.jclouds.ssh.SshClient;
+import org.junit.Test;
+
+/**
+ * Tests {@link SshSessionPool}.
+ */
+public class SshSessionPoolTest {
+
+    /**
+     * A fake SSH session which just tracks the connection state and counts executed commands.
+     */
+    private static final class FakeSession {
+        final AtomicBoolean connected = new AtomicBoolean(true);
+        final AtomicInteger commands = new AtomicInteger();
+        final SshClient client = (SshClient) Proxy.newProxyInstance(SshClient.class.getClassLoader(),
+                new Class<?>[] { SshClient.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "isConnected":
+                            return connected.get();
+                        case "disconnect":
+                            connected.set(false);
+                            return null;
+                        case "exec":
+                            commands.incrementAndGet();
+                            return new ExecResponse("", "", connected.get() ? 0 : 255);
+                        case "toString":
+                            return "FakeSession";
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private final AtomicInteger connects = new AtomicInteger();
+
+    private SshClient connect() {
+        connects.incrementAndGet();
+        return new FakeSession().client;
+    }
+
+    @Test
+    public void testReleasedSessionIsReused() throws Exception {
+        final SshSessionPool pool = new SshSessionPool("node", 4, 60_000, 60_000);
+        final SshClient first = pool.borrow(this::connect);
+        final SshClient second = pool.borrow(this::connect);
+        assertNotSame(first, second);
+        pool.release(first);
+        assertSame(first, pool.borrow(this::connect));
+        assertEquals(2, connects.get());
+        assertEquals(2, pool.getConnectCount());
+        assertEquals(1, pool.getReuseCount());
+    }
+
+    @Test
+    public void testDisconnectedSessionIsNotReused() throws Exception {
+        final SshSessionPool pool = new SshSessionPool("node", 4, 60_000, 60_000);
+        final SshClient first = pool.borrow(this::connect);
+        pool.release(first);
+        first.disconnect();
+        assertNotSame(first, pool.borrow(this::connect));
+        assertEquals(2, connects.get());
+    }
+
+    @Test
+    public void testIdleSessionIsValidated() throws Exception {
+        final FakeSession session = new FakeSession();
+        final SshSessionPool pool = new SshSessionPool("node", 4, 60_000, 0);
+        pool.release(pool.borrow(() -> session.client));
+        assertSame(session.client, pool.borrow(this::connect));
+        assertEquals("The idle session should run a check before it's reused", 1, session.commands.get());
+    }
+
+    @Test
+    public void testIdleTimeout() throws Exception {
+        final FakeSession session = new FakeSession();
+        final SshSessionPool pool = new SshSessionPool("node", 4, 50, 60_000);
+        pool.release(pool.borrow(() -> session.client));
+        Thread.sleep(100);
+        assertNotSame(session.client, pool.borrow(this::connect));
+        assertFalse("Expired session should be disconnected", session.connected.get());
+    }
+
+    @Test
+    public void testZeroIdleTimeoutDisablesPooling() throws Exception {
+        final FakeSession session = new FakeSession();
+        final SshSessionPool pool = new SshSessionPool("node", 4, 0, 0);
+        pool.release(pool.borrow(() -> session.client));
+        assertFalse(session.connected.get());
+        assertNotSame(session.client, pool.borrow(this::connect));
+    }
+
+    @Test
+    public void testMaxSessions() throws Exception {
+        final SshSessionPool pool = new SshSessionPool("node", 1, 60_000, 60_000);
+        final SshClient first = pool.borrow(this::connect);
+        final CompletableFuture<SshClient> second = CompletableFuture.supplyAsync(() -> {
+            try {
+                return pool.borrow(this::connect);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        });
+        try {
+            second.get(200, TimeUnit.MILLISECONDS);
+            fail("Second session should not be borrowed while the first one is");
+        } catch (TimeoutException expected) {
+            // expected
+        }
+        pool.release(first);
+        assertSame(first, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, connects.get());
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        final FakeSession idle = new FakeSession();
+        final FakeSession borrowed = new FakeSession();
+        final SshSessionPool pool = new SshSessionPool("node", 4, 60_000, 60_000);
+        pool.borrow(() -> idle.client);
+        pool.borrow(() -> borrowed.client);
+        pool.release(idle.client);
+        pool.close();
+        assertFalse(idle.connected.get());
+        assertTrue(borrowed.connected.get());
+        pool.release(borrowed.client);
+        assertFalse("Session returned after close should be disconnected", borrowed.connected.get());
+        try {
+            pool.borrow(this::connect);
+            fail("Closed pool should not open new sessions");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.wildfly.extras.sunstone.api.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link StreamPump}.
+ */
+public class StreamPumpTest {
+
+    @Test
+    public void testMorePumpsThanSharedThreads() throws Exception {
+        // the pumps block until their input is written, none of them may wait for a free thread
+        final List<BoundedPipe> pipes = new ArrayList<>();
+        final List<ByteArrayOutputStream> outputs = new ArrayList<>();
+        final List<CompletableFuture<Void>> pumps = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            final BoundedPipe pipe = new BoundedPipe(16);
+            final ByteArrayOutputStream output = new ByteArrayOutputStream();
+            pipes.add(pipe);
+            outputs.add(output);
+            pumps.add(StreamPump.start(pipe.source(), output));
+        }
+
+        for (int i = pipes.size() - 1; i >= 0; i--) {
+            try (OutputStream sink = pipes.get(i).sink()) {
+                sink.write(("output of command " + i).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        for (int i = 0; i < pumps.size(); i++) {
+            pumps.get(i).get(10, TimeUnit.SECONDS);
+            assertEquals("output of command " + i, new String(outputs.get(i).toByteArray(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.wildfly.extras.sunstone.api.impl.docker;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -9,7 +10,14 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -18,15 +26,21 @@ import org.junit.Test;
 import org.wildfly.extras.sunstone.api.CloudProperties;
 import org.wildfly.extras.sunstone.api.CloudProvider;
 import org.wildfly.extras.sunstone.api.CloudProviderType;
+import org.wildfly.extras.sunstone.api.ExecResult;
 import org.wildfly.extras.sunstone.api.Node;
 import org.wildfly.extras.sunstone.api.OperationNotSupportedException;
+import org.wildfly.extras.sunstone.api.ProvisioningEvent;
+import org.wildfly.extras.sunstone.api.ProvisioningPhase;
 import org.wildfly.extras.sunstone.api.impl.Config;
+import org.wildfly.extras.sunstone.api.impl.NodePoolStatistics;
 import org.wildfly.extras.sunstone.api.impl.ObjectProperties;
 import org.wildfly.extras.sunstone.api.impl.ObjectType;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsCloudProvider;
 import org.wildfly.extras.sunstone.api.jclouds.JCloudsNode;
+import org.wildfly.extras.sunstone.api.ssh.CommandExecution;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.io.CharStreams;
 
 /**
  * Tests {@link DockerCloudProvider} implementation.
@@ -84,6 +98,17 @@ public class DockerCloudProviderTest {
         }
     }
 
+    @Test
+    public void testLazyInitDoesNotCreateContext() {
+        // the endpoint would make creating the JClouds context fail, but the context is never needed
+        try (CloudProvider cloudProvider = CloudProvider.create("provider1",
+                ImmutableMap.<String, String> of("docker.endpoint", "wrongValueHere", "lazyInit", "true"))) {
+            assertEquals("provider1", cloudProvider.getName());
+            assertEquals(CloudProviderType.DOCKER, cloudProvider.getCloudProviderType());
+            assertTrue(cloudProvider.getNodes().isEmpty());
+        }
+    }
+
     @Test
     public void testCreateNodeWithOverrides() throws Exception {
         try (CloudProvider cloudProvider = CloudProvider.create("provider1")) {
@@ -95,6 +120,52 @@ public class DockerCloudProviderTest {
         }
     }
 
+    @Test
+    public void testStopStart() {
+        try (CloudProvider cloudProvider = CloudProvider.create("provider1")) {
+            try (Node node = cloudProvider.createNode("busybox")) {
+                assertTrue(node.isRunning());
+                node.stop();
+                assertFalse("Node should not be running after stop", node.isRunning());
+                node.start();
+                assertTrue("Node should be running after start", node.isRunning());
+            }
+        }
+    }
+
+    @Test
+    public void testFreezeThaw() throws Exception {
+        try (DockerCloudProvider cloudProvider = (DockerCloudProvider) CloudProvider.create("provider1")) {
+            try (DockerNode node = (DockerNode) cloudProvider.createNode("busybox")) {
+                node.exec("sh", "-c", "sleep 1000 > /dev/null 2>&1 & echo $! > /tmp/pid");
+                node.freeze();
+                final String id = node.getInitialNodeMetadata().getId();
+                assertTrue("Container should be paused", cloudProvider.getContainerApi().inspectContainer(id).state().paused());
+                assertTrue("Frozen node should be running", node.isRunning());
+                node.thaw();
+                assertFalse("Container should not be paused", cloudProvider.getContainerApi().inspectContainer(id).state().paused());
+                assertEquals("Processes should survive freezing", 0,
+                        node.exec("sh", "-c", "kill -0 $(cat /tmp/pid)").getExitCode());
+            }
+        }
+    }
+
+    @Test
+    public void testStartExecWithStdin() throws Exception {
+        try (CloudProvider cloudProvider = CloudProvider.create("provider1")) {
+            try (DockerNode node = (DockerNode) cloudProvider.createNode("busybox");
+                    CommandExecution execution = node.startExec("sh", "-c", "cat; echo done >&2; exit 3")) {
+                try (OutputStream stdin = execution.stdin()) {
+                    stdin.write("hello".getBytes(StandardCharsets.UTF_8));
+                }
+                assertEquals("hello", CharStreams.toString(new InputStreamReader(execution.stdout(), StandardCharsets.UTF_8)));
+                assertEquals("done\n", CharStreams.toString(new InputStreamReader(execution.stderr(), StandardCharsets.UTF_8)));
+                execution.await(1, TimeUnit.MINUTES);
+                assertEquals(3, execution.exitCode().getAsInt());
+            }
+        }
+    }
+
     @Test
     public void testGetNodes() {
         try (CloudProvider cloudProvider = CloudProvider.create("provider1")) {
@@ -108,6 +179,24 @@ public class DockerCloudProviderTest {
         }
     }
 
+    @Test
+    public void testNodeNetwork() throws Exception {
+        // network aliases require API 1.22
+        try (DockerCloudProvider cloudProvider = (DockerCloudProvider) CloudProvider.create("provider1",
+                ImmutableMap.<String, String> of("docker.network", "true", "docker.apiVersion", "1.24"))) {
+            try (DockerNode node1 = (DockerNode) cloudProvider.createNode("busybox2");
+                    DockerNode node2 = (DockerNode) cloudProvider.createNode("busybox3")) {
+                final String networkName = cloudProvider.getNodeNetworkName();
+                assertNotNull(networkName);
+                assertEquals(networkName, cloudProvider.getNetworkApi().inspectNetwork(networkName).name());
+                // the node name is resolved to the address of the other container on the network
+                final ExecResult result = node1.exec("ping", "-c", "1", "-W", "5", "busybox3");
+                assertEquals(0, result.getExitCode());
+                Assert.assertThat(result.getOutput(), containsString("(" + node2.getPrivateAddress() + ")"));
+            }
+        }
+    }
+
     @Test
     public void testDefaultObjectProperties() {
         try (DockerCloudProvider cloudProvider = (DockerCloudProvider) CloudProvider.create("provider2")) {
@@ -127,6 +216,45 @@ public class DockerCloudProviderTest {
         }
     }
 
+    @Test
+    public void testLeaseFromNodePool() throws Exception {
+        try (DockerCloudProvider cloudProvider = (DockerCloudProvider) CloudProvider.create("pooledProvider")) {
+            Node node = cloudProvider.lease("busybox");
+            assertTrue("Leased node should be running", node.isRunning());
+            assertEquals(node, cloudProvider.getNode("busybox"));
+
+            cloudProvider.release(node);
+            assertNull("Released node should not be registered anymore", cloudProvider.getNode("busybox"));
+            assertTrue("Node returned to the pool should be kept running", node.isRunning());
+
+            Node leasedAgain = cloudProvider.lease("busybox");
+            NodePoolStatistics statistics = cloudProvider.getNodePoolStatistics();
+            assertEquals(2, statistics.getHits() + statistics.getMisses());
+            assertTrue("Returned node should be reused", statistics.getHits() >= 1);
+            leasedAgain.close();
+            assertNull(cloudProvider.getNode("busybox"));
+        }
+    }
+
+    @Test
+    public void testProvisioningListener() {
+        try (CloudProvider cloudProvider = CloudProvider.create("provider1")) {
+            final List<ProvisioningEvent> events = new CopyOnWriteArrayList<>();
+            cloudProvider.addProvisioningListener(events::add);
+            try (Node node = cloudProvider.createNode("busybox")) {
+                final List<ProvisioningPhase> phases = events.stream().map(ProvisioningEvent::getPhase)
+                        .collect(Collectors.toList());
+                assertTrue(phases.contains(ProvisioningPhase.IMAGE_RESOLUTION));
+                assertTrue(phases.contains(ProvisioningPhase.CREATE_NODES_IN_GROUP));
+                assertEquals(ProvisioningPhase.READY, phases.get(phases.size() - 1));
+                assertTrue(events.stream().allMatch(event -> "busybox".equals(event.getNodeName())));
+
+                final Map<ProvisioningPhase, Long> timings = node.getProvisioningTimings();
+                assertTrue(timings.get(ProvisioningPhase.READY) >= timings.get(ProvisioningPhase.CREATE_NODES_IN_GROUP));
+            }
+        }
+    }
+
     @Test
     public void testGetProperty() {
         try (CloudProvider cloudProvider = CloudProvider.create("provider3")) {
@@ -17,8 +17,13 @@ import java.net.InetSocketAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
@@ -35,6 +40,7 @@ import org.wildfly.extras.sunstone.api.Node;
 import org.wildfly.extras.sunstone.api.PortOpeningTimeoutException;
 import org.wildfly.extras.sunstone.api.impl.Config;
 import org.wildfly.extras.sunstone.api.impl.Constants;
+import org.wildfly.extras.sunstone.api.ssh.SshClient;
 
 import com.google.common.collect.ImmutableMap;
 
@@ -223,31 +229,58 @@ public class DockerNodeTest {
     }
 
     /**
-     * Tests that the calling {@link Node#copyFileToNode(Path, String)} for single file throws
-     * {@link IllegalArgumentException} when SSH server is not running in a container.
+     * Tests that commands submitted by {@link SshClient#submit(String)} run concurrently over one SSH connection and
+     * their results are not mixed up.
+     */
+    @Test
+    public void testSubmitOverOneSshClient() throws Exception {
+        try (SshClient ssh = alpineSshNode.ssh()) {
+            final List<CompletableFuture<ExecResult>> results = new ArrayList<>();
+            final long start = System.nanoTime();
+            for (int i = 0; i < 20; i++) {
+                results.add(ssh.submit("sleep 1; echo out" + i + "; echo err" + i + " >&2; exit " + i));
+            }
+            for (int i = 0; i < 20; i++) {
+                final ExecResult result = results.get(i).get(1, TimeUnit.MINUTES);
+                assertEquals("out" + i + "\n", result.getOutput());
+                assertEquals("err" + i + "\n", result.getError());
+                assertEquals(i, result.getExitCode());
+            }
+            assertTrue("Commands should run concurrently", System.nanoTime() - start < TimeUnit.SECONDS.toNanos(15));
+        }
+    }
+
+    /**
+     * Tests that the calling {@link Node#copyFileToNode(Path, String)} for single file works when SSH server is not
+     * running in a container.
      *
      * @throws IOException
-     * @throws IllegalArgumentException
      */
-    @Test(expected = IllegalArgumentException.class)
-    public void testCopyToNodeWithoutSsh() throws IOException, IllegalArgumentException, InterruptedException {
+    @Test
+    public void testCopyToNodeWithoutSsh() throws IOException, InterruptedException {
         File srcFile = new File(WORK_DIR, "testCopyToNodeWithoutSsh");
         FileUtils.write(srcFile, "original content");
         alpineNode.copyFileToNode(srcFile.toPath(), "/tmp/testCopyToNodeWithoutSsh");
+        assertEquals("original content", alpineNode.exec("cat", "/tmp/testCopyToNodeWithoutSsh").getOutput());
     }
 
     /**
-     * Tests that the calling {@link Node#copyFileToNode(Path, String)} for a folder throws
-     * {@link IllegalArgumentException}.
+     * Tests that the calling {@link Node#copyFileToNode(Path, String)} for a folder copies it recursively, including file
+     * modes and symbolic links.
      *
      * @throws IOException
-     * @throws IllegalArgumentException
      */
-    @Test(expected = IllegalArgumentException.class)
-    public void testCopyToNodeSrcFolder() throws IOException, IllegalArgumentException, InterruptedException {
-        File tmpFile = new File(WORK_DIR, "testCopyToNodeSrcFolder");
-        FileUtils.write(tmpFile, "original content");
-        alpineSshNode.copyFileToNode(WORK_DIR.toPath(), "/tmp");
+    @Test
+    public void testCopyToNodeSrcFolder() throws IOException, InterruptedException {
+        File srcFolder = new File(WORK_DIR, "testCopyToNodeSrcFolder");
+        File script = new File(srcFolder, "sub/script.sh");
+        FileUtils.write(script, "echo -n Ahoj");
+        assertTrue(script.setExecutable(true));
+        Files.createSymbolicLink(new File(srcFolder, "link").toPath(), Paths.get("sub/script.sh"));
+        alpineNode.copyFileToNode(srcFolder.toPath(), "/tmp");
+        assertEquals("Ahoj", alpineNode.exec("sh", "/tmp/testCopyToNodeSrcFolder/link").getOutput());
+        assertEquals(0, alpineNode.exec("test", "-x", "/tmp/testCopyToNodeSrcFolder/sub/script.sh").getExitCode());
+        assertEquals("sub/script.sh", alpineNode.exec("readlink", "/tmp/testCopyToNodeSrcFolder/link").getOutput().trim());
     }
 
     /**
@@ -280,12 +313,11 @@ public class DockerNodeTest {
 
     /**
      * Tests that the calling {@link Node#copyFileToNode(Path, String)} for single file throws
-     * {@link org.jclouds.ssh.SshException} when target folder doesn't exist
+     * {@link FileNotFoundException} when target folder doesn't exist
      *
      * @throws IOException
-     * @throws org.jclouds.ssh.SshException
      */
-    @Test(expected = org.jclouds.ssh.SshException.class)
+    @Test(expected = FileNotFoundException.class)
     public void testCopyFileToNodeNotExistingFolder() throws IOException, InterruptedException {
         File srcFile = new File(WORK_DIR, "src.file");
         FileUtils.write(srcFile, "original content");
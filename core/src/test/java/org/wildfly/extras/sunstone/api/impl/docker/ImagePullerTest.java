@@ -0,0 +1,122 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jclouds.docker.domain.Image;
+import org.jclouds.docker.features.ImageApi;
+import org.junit.Test;
+
+/**
+ * Tests {@link ImagePuller} against a fake {@link ImageApi}.
+ */
+public class ImagePullerTest {
+
+    private static final String PROGRESS = "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":100},\"id\":\"a\"}"
+            + "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":300},\"id\":\"a\"}"
+            + "{\"status\":\"Downloading\",\"progressDetail\":{\"current\":50},\"id\":\"b\"}"
+            + "{\"status\":\"Download complete\",\"id\":\"a\"}";
+
+    private final AtomicInteger pulls = new AtomicInteger();
+    private volatile boolean present;
+    private volatile CountDownLatch pullLatch = new CountDownLatch(0);
+
+    private final ImageApi imageApi = (ImageApi) Proxy.newProxyInstance(getClass().getClassLoader(),
+            new Class<?>[] { ImageApi.class }, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "inspectImage":
+                        return present ? image() : null;
+                    case "createImage":
+                        pulls.incrementAndGet();
+                        pullLatch.await(10, TimeUnit.SECONDS);
+                        present = true;
+                        return new ByteArrayInputStream(PROGRESS.getBytes(StandardCharsets.UTF_8));
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+
+    private final ImagePuller puller = new ImagePuller(() -> imageApi);
+
+    @Test
+    public void testConcurrentPullsAreDeduplicated() throws Exception {
+        pullLatch = new CountDownLatch(1);
+        final List<CompletableFuture<Image>> resolutions = IntStream.range(0, 10)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> puller.resolve("busybox", ImagePuller.PullPolicy.ALWAYS)))
+                .collect(Collectors.toList());
+        while (pulls.get() == 0) {
+            Thread.sleep(10);
+        }
+        // let the other resolutions join the running pull
+        Thread.sleep(200);
+        pullLatch.countDown();
+        for (CompletableFuture<Image> resolution : resolutions) {
+            assertNotNull(resolution.get(10, TimeUnit.SECONDS));
+        }
+        final ImagePullStatistics statistics = puller.getStatistics();
+        assertEquals(pulls.get(), statistics.getPulls());
+        assertEquals(10, statistics.getPulls() + statistics.getJoinedPulls());
+        assertEquals(350 * statistics.getPulls(), statistics.getPulledBytes());
+    }
+
+    @Test
+    public void testIfNotPresent() {
+        puller.resolve("busybox:1.25", ImagePuller.PullPolicy.IF_NOT_PRESENT);
+        puller.resolve("busybox:1.25", ImagePuller.PullPolicy.IF_NOT_PRESENT);
+        assertEquals(1, pulls.get());
+        assertEquals(1, puller.getStatistics().getSkippedPulls());
+    }
+
+    @Test
+    public void testResolveWaitsForPrefetch() throws Exception {
+        pullLatch = new CountDownLatch(1);
+        puller.prefetch("busybox", ImagePuller.PullPolicy.ALWAYS, runnable -> new Thread(runnable).start());
+        final CompletableFuture<Image> resolution = CompletableFuture
+                .supplyAsync(() -> puller.resolve("busybox", ImagePuller.PullPolicy.ALWAYS));
+        Thread.sleep(200);
+        pullLatch.countDown();
+        assertNotNull(resolution.get(10, TimeUnit.SECONDS));
+        // the prefetched image isn't pulled again, even with the 'always' pull policy
+        assertEquals(1, pulls.get());
+    }
+
+    @Test
+    public void testNever() {
+        try {
+            puller.resolve("busybox", ImagePuller.PullPolicy.NEVER);
+            fail("Image which is not present must not be resolved with the 'never' pull policy");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(0, pulls.get());
+    }
+
+    @Test
+    public void testDefaultPolicy() {
+        assertEquals(ImagePuller.PullPolicy.ALWAYS, ImagePuller.PullPolicy.defaultFor("jboss/wildfly"));
+        assertEquals(ImagePuller.PullPolicy.ALWAYS, ImagePuller.PullPolicy.defaultFor("registry:5000/busybox:latest"));
+        assertEquals(ImagePuller.PullPolicy.IF_NOT_PRESENT, ImagePuller.PullPolicy.defaultFor("registry:5000/busybox:1.25"));
+        assertEquals(ImagePuller.PullPolicy.ALWAYS, ImagePuller.PullPolicy.defaultFor("registry:5000/busybox"));
+        assertEquals(ImagePuller.PullPolicy.IF_NOT_PRESENT, ImagePuller.PullPolicy.defaultFor("busybox@sha256:abc"));
+        assertEquals(ImagePuller.PullPolicy.IF_NOT_PRESENT, ImagePuller.PullPolicy.fromLabel("ifNotPresent"));
+    }
+
+    private static Image image() {
+        return Image.create("sha256:1234", "", "", null, null, "", new Date(), "", "", "", "", 0, 0,
+                Collections.singletonList("busybox:latest"));
+    }
+}
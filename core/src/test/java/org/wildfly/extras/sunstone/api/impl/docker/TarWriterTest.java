@@ -0,0 +1,129 @@
+package org.wildfly.extras.sunstone.api.impl.docker;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.jboss.shrinkwrap.impl.base.io.tar.TarEntry;
+import org.jboss.shrinkwrap.impl.base.io.tar.TarHeader;
+import org.jboss.shrinkwrap.impl.base.io.tar.TarInputStream;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TarWriter} by reading its output with a tar reader.
+ */
+public class TarWriterTest {
+
+    private Path workDir;
+
+    @Before
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("TarWriterTest");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(workDir.toFile());
+    }
+
+    @Test
+    public void testDirectoryWithModesAndSymlink() throws IOException {
+        final Path src = workDir.resolve("src");
+        Files.createDirectories(src.resolve("sub"));
+        final Path script = Files.write(src.resolve("sub/script.sh"), "echo Ahoj".getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.setPosixFilePermissions(script, PosixFilePermissions.fromString("rwxr-x---"));
+        } catch (UnsupportedOperationException e) {
+            Assume.assumeNoException(e);
+        }
+        Files.createSymbolicLink(src.resolve("link"), Paths.get("sub/script.sh"));
+
+        final Map<String, TarEntry> entries = new HashMap<>();
+        final Map<String, String> contents = new HashMap<>();
+        try (TarInputStream tis = new TarInputStream(new ByteArrayInputStream(tar(src, "copy")))) {
+            TarEntry entry;
+            while ((entry = tis.getNextEntry()) != null) {
+                entries.put(entry.getName(), entry);
+                final ByteArrayOutputStream content = new ByteArrayOutputStream();
+                tis.copyEntryContents(content);
+                contents.put(entry.getName(), new String(content.toByteArray(), StandardCharsets.UTF_8));
+            }
+        }
+
+        assertEquals(4, entries.size());
+        assertTrue(entries.get("copy/").isDirectory());
+        assertTrue(entries.get("copy/sub/").isDirectory());
+        assertEquals(0750, entries.get("copy/sub/script.sh").getHeader().mode);
+        assertEquals("echo Ahoj", contents.get("copy/sub/script.sh"));
+        final TarHeader link = entries.get("copy/link").getHeader();
+        assertEquals(TarHeader.LF_SYMLINK, link.linkFlag);
+        assertEquals("sub/script.sh", link.linkName.toString());
+    }
+
+    @Test
+    public void testSingleFile() throws IOException {
+        final byte[] data = new byte[1500];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        final Path file = Files.write(workDir.resolve("data.bin"), data);
+
+        final byte[] tar = tar(file, "target.bin");
+        // header, 3 data blocks, end of archive
+        assertEquals(6 * 512, tar.length);
+        try (TarInputStream tis = new TarInputStream(new ByteArrayInputStream(tar))) {
+            final TarEntry entry = tis.getNextEntry();
+            assertEquals("target.bin", entry.getName());
+            assertEquals(data.length, entry.getSize());
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            tis.copyEntryContents(content);
+            assertEquals(data.length, content.size());
+            assertEquals(data[1499], content.toByteArray()[1499]);
+            assertNull(tis.getNextEntry());
+        }
+    }
+
+    @Test
+    public void testOwner() throws IOException {
+        final Path file = workDir.resolve("owned.txt");
+        Files.write(file, "owned".getBytes(StandardCharsets.UTF_8));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarWriter writer = new TarWriter(out, 1000, 1001)) {
+            writer.write(file, "owned.txt");
+        }
+        try (TarInputStream tis = new TarInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            final TarEntry entry = tis.getNextEntry();
+            assertEquals(1000, entry.getUserId());
+            assertEquals(1001, entry.getGroupId());
+            assertEquals("", entry.getUserName());
+        }
+        try (TarInputStream tis = new TarInputStream(new ByteArrayInputStream(tar(file, "owned.txt")))) {
+            final TarEntry entry = tis.getNextEntry();
+            assertEquals(0, entry.getUserId());
+            assertEquals("root", entry.getUserName());
+        }
+    }
+
+    private static byte[] tar(Path src, String entryName) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TarWriter writer = new TarWriter(out)) {
+            writer.write(src, entryName);
+        }
+        return out.toByteArray();
+    }
+}
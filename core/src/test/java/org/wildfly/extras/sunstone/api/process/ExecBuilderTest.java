@@ -143,6 +143,30 @@ public class ExecBuilderTest {
         }
     }
 
+    /**
+     * Tests that commands executed by Docker exec (the default on Docker nodes) give the same results as over SSH.
+     */
+    @Test
+    public void testDockerAndSshTransports() throws OperationNotSupportedException, IOException, InterruptedException {
+        try (Node dockerExecNode = dockerProvider.createNode(NODENAME)) {
+            final Node sshNode = new NodeWrapper(dockerExecNode) {
+                @Override
+                public CommandTransport commandTransport() {
+                    return CommandTransport.ssh(this);
+                }
+            };
+            for (ExecBuilder execBuilder : new ExecBuilder[] { ExecBuilder.fromCommand("whoami"),
+                    ExecBuilder.fromCommand("whoami").withSudo(), ExecBuilder.fromCommand("pwd"),
+                    ExecBuilder.fromShellScript("echo out; echo err >&2; exit 3") }) {
+                final ExecResult overDocker = execBuilder.exec(dockerExecNode);
+                final ExecResult overSsh = execBuilder.exec(sshNode);
+                assertEquals(execBuilder.toString(), overSsh.getOutput(), overDocker.getOutput());
+                assertEquals(execBuilder.toString(), overSsh.getError(), overDocker.getError());
+                assertEquals(execBuilder.toString(), overSsh.getExitCode(), overDocker.getExitCode());
+            }
+        }
+    }
+
     @Test
     public void testAssertions() throws IOException, InterruptedException {
         try (Node sshNode = dockerProvider.createNode(NODENAME)) {
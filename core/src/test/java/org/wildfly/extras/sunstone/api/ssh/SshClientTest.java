@@ -0,0 +1,161 @@
+package org.wildfly.extras.sunstone.api.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.OptionalInt;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import org.wildfly.extras.sunstone.api.ExecResult;
+
+/**
+ * Tests the default methods of {@link SshClient}.
+ */
+public class SshClientTest {
+
+    private static final int PIPE_SIZE = 1024;
+
+    /**
+     * Simulates a remote process which writes {@code stderrBytes} bytes to stderr and then a line to stdout, and exits
+     * with code 7 only after both outputs were consumed, like a process blocked on a full channel window.
+     */
+    private static final class FakeExecution implements CommandExecution {
+        private final PipedInputStream stdout = new PipedInputStream(PIPE_SIZE);
+        private final PipedInputStream stderr = new PipedInputStream(PIPE_SIZE);
+        private final CompletableFuture<Integer> exitCode = new CompletableFuture<>();
+
+        FakeExecution(int stderrBytes) throws IOException {
+            final PipedOutputStream stdoutWriter = new PipedOutputStream(stdout);
+            final PipedOutputStream stderrWriter = new PipedOutputStream(stderr);
+            final Thread process = new Thread(() -> {
+                try {
+                    final byte[] chunk = new byte[100];
+                    Arrays.fill(chunk, (byte) 'e');
+                    for (int written = 0; written < stderrBytes; written += chunk.length) {
+                        stderrWriter.write(chunk, 0, Math.min(chunk.length, stderrBytes - written));
+                    }
+                    stderrWriter.close();
+                    stdoutWriter.write("done\n".getBytes(StandardCharsets.UTF_8));
+                    stdoutWriter.close();
+                    exitCode.complete(7);
+                } catch (IOException e) {
+                    exitCode.completeExceptionally(e);
+                }
+            });
+            process.setDaemon(true);
+            process.start();
+        }
+
+        @Override
+        public OutputStream stdin() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public InputStream stdout() {
+            return stdout;
+        }
+
+        @Override
+        public InputStream stderr() {
+            return stderr;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            try {
+                exitCode.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void await(long timeout, TimeUnit timeoutUnit) throws InterruptedException, TimeoutException {
+            try {
+                exitCode.get(timeout, timeoutUnit);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public OptionalInt exitCode() {
+            return exitCode.isDone() ? OptionalInt.of(exitCode.join()) : OptionalInt.empty();
+        }
+
+        @Override
+        public void close() throws IOException {
+            stdout.close();
+            stderr.close();
+        }
+    }
+
+    private static SshClient client(int stderrBytes) {
+        return new SshClient() {
+            @Override
+            public CommandExecution exec(String command) {
+                try {
+                    return new FakeExecution(stderrBytes);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public InputStream get(String path) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void put(String path, Supplier<InputStream> data) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Test(timeout = 30_000)
+    public void testOutputsAreReadWhileCommandRuns() throws Exception {
+        final ExecResult result = client(100 * PIPE_SIZE).execAndWait("command");
+        assertEquals("done\n", result.getOutput());
+        assertEquals(100 * PIPE_SIZE, result.getError().length());
+        assertEquals(7, result.getExitCode());
+    }
+
+    @Test(timeout = 30_000)
+    public void testOutputsToStreams() throws Exception {
+        final ByteArrayOutputStream stdout = new ByteArrayOutputStream();
+        final TailOutputStream stderr = new TailOutputStream(10);
+        assertEquals(7, client(1_000_000).execAndWait("command", stdout, stderr));
+        assertEquals("done\n", new String(stdout.toByteArray(), StandardCharsets.UTF_8));
+        assertEquals("eeeeeeeeee", stderr.toString());
+        assertEquals(1_000_000, stderr.getTotalBytes());
+        assertTrue(stderr.isTruncated());
+    }
+
+    @Test(timeout = 30_000)
+    public void testReaderLeavingOutputUnread() throws Exception {
+        final TailOutputStream stderr = new TailOutputStream(10);
+        final StringBuilder firstChar = new StringBuilder();
+        assertEquals(7, client(100 * PIPE_SIZE).execAndRead("command", in -> firstChar.append((char) in.read()), stderr));
+        assertEquals("d", firstChar.toString());
+        assertEquals(100 * PIPE_SIZE, stderr.getTotalBytes());
+    }
+}
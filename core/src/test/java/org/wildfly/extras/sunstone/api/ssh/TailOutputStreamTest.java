@@ -0,0 +1,47 @@
+package org.wildfly.extras.sunstone.api.ssh;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link TailOutputStream}.
+ */
+public class TailOutputStreamTest {
+
+    @Test
+    public void testKeepsEverythingUpToLimit() throws Exception {
+        final TailOutputStream tail = new TailOutputStream(10);
+        tail.write("hello".getBytes(StandardCharsets.UTF_8));
+        tail.write(' ');
+        tail.write("tail".getBytes(StandardCharsets.UTF_8));
+        assertEquals("hello tail", tail.toString());
+        assertEquals(10, tail.getTotalBytes());
+        assertFalse(tail.isTruncated());
+    }
+
+    @Test
+    public void testKeepsLastBytes() throws Exception {
+        final TailOutputStream tail = new TailOutputStream(8);
+        for (int i = 0; i < 10; i++) {
+            tail.write(("line" + i + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        assertEquals("8\nline9\n", tail.toString());
+        assertEquals(60, tail.getTotalBytes());
+        assertTrue(tail.isTruncated());
+    }
+
+    @Test
+    public void testChunkLargerThanLimit() throws Exception {
+        final TailOutputStream tail = new TailOutputStream(4);
+        tail.write('x');
+        tail.write("0123456789".getBytes(StandardCharsets.UTF_8), 2, 7);
+        assertEquals("5678", tail.toString());
+        tail.write("ab".getBytes(StandardCharsets.UTF_8));
+        assertEquals("78ab", tail.toString());
+    }
+}
@@ -16,6 +16,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -386,5 +387,20 @@ public abstract class AbstractCloudProviderTest {
 
         String content = new String(Files.readAllBytes(copiedTextFile), StandardCharsets.US_ASCII);
         assertThat(content, containsString("foo bar"));
+
+        if (testedCloudProvider.commandExecutionSupported()) {
+            assertEquals(0, node.exec("sh", "-c", "mkdir -p /tmp/foo/bar && echo baz > /tmp/foo/bar/baz.txt").getExitCode());
+            Path copiedDir = tmp.getRoot().toPath().resolve("copied-dir");
+            node.copyFileFromNode("/tmp/foo", copiedDir);
+            assertEquals("baz\n", new String(Files.readAllBytes(copiedDir.resolve("bar/baz.txt")),
+                    StandardCharsets.US_ASCII));
+        }
+
+        try {
+            node.copyFileFromNode("/tmp/does-not-exist", tmp.getRoot().toPath().resolve("missing.txt"));
+            fail("Copying a missing file should fail");
+        } catch (FileNotFoundException expected) {
+            // expected
+        }
     }
 }